@@ -0,0 +1,125 @@
+package com.testing.automation.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.testing.automation.api.StreamingJsonAssert;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request body serialization and response body extraction as the API tests do them.
+ *
+ * Bodies are the JSONPlaceholder fixtures: "posts" is the real 100-element /posts response,
+ * "comments" the 500-element /comments one, and "large" the comments repeated to 50,000
+ * elements (about 13MB).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+    private static final Gson GSON = new Gson();
+
+    @Param({"posts", "comments", "large"})
+    String payload;
+
+    private String body;
+    private Map<String, Object> newPost;
+    private RequestSpecification request;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (payload) {
+            case "posts":
+                body = fixture("posts");
+                break;
+            case "comments":
+                body = fixture("comments");
+                break;
+            default:
+                JsonArray comments = JsonParser.parseString(fixture("comments")).getAsJsonArray();
+                JsonArray large = new JsonArray();
+                for (int i = 0; i < 100; i++) {
+                    large.addAll(comments);
+                }
+                body = GSON.toJson(large);
+        }
+
+        // Same shape as testCreatePost
+        newPost = new HashMap<>();
+        newPost.put("title", "Test Post");
+        newPost.put("body", "This is a test post");
+        newPost.put("userId", 1);
+        request = RestAssured.given().contentType(ContentType.JSON);
+    }
+
+    /** body(Map) on a JSON request, which looks up the object mapper and serializes straight away. */
+    @Benchmark
+    public String serializeHashMapBody() {
+        return SpecificationQuerier.query(request.body(newPost)).getBody();
+    }
+
+    @Benchmark
+    public String serializeHashMapBodyGson() {
+        return GSON.toJson(newPost);
+    }
+
+    /** As in testGetAllPosts before streaming assertions: response.jsonPath().getList(""). */
+    @Benchmark
+    public List<Object> jsonPathGetList() {
+        return new JsonPath(body).getList("");
+    }
+
+    @Benchmark
+    public int jsonPathFirstId() {
+        return new JsonPath(body).getInt("[0].id");
+    }
+
+    @Benchmark
+    public List<Integer> jsonPathAllIds() {
+        return new JsonPath(body).getList("id", Integer.class);
+    }
+
+    @Benchmark
+    public int streamingAssert() {
+        return StreamingJsonAssert.assertThat(body)
+            .isNotEmpty()
+            .everyElementHas("id")
+            .verify();
+    }
+
+    private static String fixture(String name) throws IOException {
+        String resource = "fixtures/jsonplaceholder/" + name + ".json";
+        try (InputStream in = JsonBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + resource);
+            }
+            return JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).toString();
+        }
+    }
+}
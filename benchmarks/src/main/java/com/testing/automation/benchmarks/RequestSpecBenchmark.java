@@ -0,0 +1,76 @@
+package com.testing.automation.benchmarks;
+
+import static io.restassured.RestAssured.given;
+
+import com.testing.automation.api.TimingFilter;
+import com.testing.automation.utils.TestReport;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building a request specification with {@code given()}, which every API test pays
+ * before its request goes out. Nothing is sent. Runs with the same global RestAssured state
+ * as APITest (base URI and TimingFilter), since given() copies it into each new spec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+    private Map<String, Object> updatedPost;
+
+    @Setup
+    public void setUp() {
+        RestAssured.baseURI = "http://127.0.0.1:8080";
+        RestAssured.filters(new TimingFilter(TestReport.getInstance()));
+
+        // Same shape as testUpdatePost
+        updatedPost = new HashMap<>();
+        updatedPost.put("id", 1);
+        updatedPost.put("title", "Updated Title");
+        updatedPost.put("body", "Updated body");
+        updatedPost.put("userId", 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RestAssured.reset();
+    }
+
+    @Benchmark
+    public RequestSpecification givenOnly() {
+        return given();
+    }
+
+    /** As in testGetPost. */
+    @Benchmark
+    public RequestSpecification givenWithPathParam() {
+        return given().pathParam("id", 1);
+    }
+
+    /** As in testUpdatePost, up to the point the request would be sent. */
+    @Benchmark
+    public RequestSpecification givenWithJsonBody() {
+        return given()
+            .contentType(ContentType.JSON)
+            .pathParam("id", 1)
+            .body(updatedPost);
+    }
+}
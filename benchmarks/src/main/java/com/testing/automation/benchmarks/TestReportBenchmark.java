@@ -0,0 +1,124 @@
+package com.testing.automation.benchmarks;
+
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of recording N results into a {@link TestReport} and of rendering a report holding N
+ * results. Each iteration is one pass over N results, timed once; the result log and HTML it
+ * leaves behind are deleted afterwards, since at 1M results they run to hundreds of megabytes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TestReportBenchmark {
+    private static final String[] TEST_NAMES = new String[64];
+
+    static {
+        for (int i = 0; i < TEST_NAMES.length; i++) {
+            TEST_NAMES[i] = "testMethod" + i;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class EmptyReport {
+        @Param({"10000", "100000", "1000000"})
+        int results;
+
+        TestReport report;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            report = new TestReport();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            report.close();
+            deleteOutput(report);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FilledReport {
+        @Param({"10000", "100000", "1000000"})
+        int results;
+
+        TestReport report;
+        Path html;
+        Path history;
+
+        // Each rendering appends a run to the performance history, so keep it out of the real one
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            history = Files.createTempFile("perf-history", ".bin");
+            System.setProperty("perf.historyFile", history.toString());
+            if (!TestConfig.PERF_HISTORY_FILE.equals(history.toString())) {
+                throw new IllegalStateException("TestConfig was loaded before the history file was set");
+            }
+            report = new TestReport();
+            addResults(report, results);
+        }
+
+        @TearDown(Level.Iteration)
+        public void deleteHtml() throws IOException {
+            if (html != null) {
+                Files.deleteIfExists(html);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            report.close();
+            deleteOutput(report);
+            Files.deleteIfExists(history);
+        }
+    }
+
+    @Benchmark
+    public TestReport addResult(EmptyReport state) {
+        addResults(state.report, state.results);
+        return state.report;
+    }
+
+    @Benchmark
+    public Path generateReport(FilledReport state) {
+        state.html = state.report.generateReport();
+        return state.html;
+    }
+
+    private static void addResults(TestReport report, int count) {
+        for (int i = 0; i < count; i++) {
+            boolean passed = i % 10 != 0;
+            report.addResult(TEST_NAMES[i % TEST_NAMES.length], "API", passed, "Benchmark result",
+                passed ? null : "expected [200] but found [500]", i % 500);
+        }
+    }
+
+    private static void deleteOutput(TestReport report) throws IOException {
+        try (Stream<Path> files = Files.walk(report.getResultLog())) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
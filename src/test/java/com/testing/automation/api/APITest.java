@@ -4,22 +4,41 @@ import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.testng.annotations.*;
-import org.testng.ITestResult;
 import static io.restassured.RestAssured.given;
 import static org.testng.Assert.*;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import com.testing.automation.utils.CaseStream;
 import com.testing.automation.utils.TestConfig;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.Map;
 import java.util.HashMap;
 import com.testing.automation.utils.TestReport;
 
 public class APITest {
-    private TestReport report;
+    private JsonPlaceholderServer stubServer;
+    private ApiClient apiClient;
+    private AsyncApi asyncApi;
     
     @BeforeClass
     public void setup() {
-        RestAssured.baseURI = TestConfig.API_BASE_URL;
-        report = new TestReport();
+        if ("local".equals(TestConfig.API_TARGET)) {
+            stubServer = JsonPlaceholderServer.start(TestConfig.API_STUB_PERSIST_WRITES);
+            RestAssured.baseURI = stubServer.baseUrl();
+        } else {
+            RestAssured.baseURI = TestConfig.API_BASE_URL;
+        }
+        apiClient = new ApiClient(TestConfig.API_POOL_MAX_TOTAL, TestConfig.API_POOL_MAX_PER_ROUTE,
+            TestConfig.API_TIMEOUT_MS);
+        apiClient.install();
+        RestAssured.filters(new CircuitBreakerFilter(), new TimingFilter(TestReport.getInstance()), new ExchangeRecorder());
+        asyncApi = new AsyncApi(RestAssured.baseURI, TestConfig.API_ASYNC_MAX_CONCURRENCY);
     }
     
     // GET Tests
@@ -33,9 +52,15 @@ public class APITest {
             .contentType(ContentType.JSON)
             .extract().response();
             
-        List<Object> posts = response.jsonPath().getList("");
-        assertFalse(posts.isEmpty(), "Posts list should not be empty");
-        assertTrue(posts.size() > 0, "Should return multiple posts");
+        // JSONPlaceholder, like its stub, has exactly 100 posts, unless the stub keeps the posts other tests create
+        StreamingJsonAssert posts = StreamingJsonAssert.assertThat(response);
+        if (TestConfig.API_STUB_PERSIST_WRITES) {
+            posts.isNotEmpty();
+        } else {
+            posts.hasSize(100);
+        }
+        posts.everyElementHas("userId", "id", "title", "body")
+            .verify();
     }
     
     @Test(description = "Test getting a specific post")
@@ -68,16 +93,11 @@ public class APITest {
             .contentType(ContentType.JSON)
             .extract().response();
             
-        List<Object> comments = response.jsonPath().getList("");
-        assertFalse(comments.isEmpty(), "Comments list should not be empty");
-        
-        // Verify first comment structure
-        Map<String, Object> firstComment = (Map<String, Object>) comments.get(0);
-        assertNotNull(firstComment.get("postId"));
-        assertNotNull(firstComment.get("id"));
-        assertNotNull(firstComment.get("name"));
-        assertNotNull(firstComment.get("email"));
-        assertNotNull(firstComment.get("body"));
+        // Verify comment structure in one streaming pass
+        StreamingJsonAssert.assertThat(response)
+            .isNotEmpty()
+            .everyElementHas("postId", "id", "name", "email", "body")
+            .verify();
     }
 
     // POST Tests
@@ -197,11 +217,9 @@ public class APITest {
         assertTrue(responseTime < 2000, "API response time is greater than 2 seconds");
     }
 
-    @DataProvider(name = "postIds")
-    public Object[][] providePostIds() {
-        return new Object[][] {
-            {1}, {2}, {3}, {4}, {5}
-        };
+    @DataProvider(name = "postIds", parallel = true)
+    public Iterator<Object[]> providePostIds() {
+        return CaseStream.range(1, TestConfig.DATA_POST_COUNT + 1);
     }
 
     @Test(dataProvider = "postIds", description = "Test performance across multiple posts")
@@ -218,17 +236,102 @@ public class APITest {
             "Failed to get post " + postId);
     }
     
-    @AfterMethod
-    public void afterMethod(ITestResult result) {
-        String testName = result.getMethod().getMethodName();
-        String description = result.getMethod().getDescription();
-        boolean passed = result.getStatus() == ITestResult.SUCCESS;
-        String error = result.getThrowable() != null ? result.getThrowable().getMessage() : null;
-        report.addResult(testName, "API", passed, description, error);
+    @Test(description = "Test latency percentiles under concurrent load")
+    public void testPostsUnderLoad() throws InterruptedException {
+        LoadGenerator load = new LoadGenerator()
+            .concurrency(TestConfig.LOAD_CONCURRENCY)
+            .targetRate(TestConfig.LOAD_TARGET_RATE)
+            .warmUp(Duration.ofSeconds(TestConfig.LOAD_WARMUP_SECONDS))
+            .duration(Duration.ofSeconds(TestConfig.LOAD_DURATION_SECONDS));
+        
+        // Same scenarios as testMultiplePostsPerformance
+        providePostIds().forEachRemaining(row -> {
+            int postId = (int) row[0];
+            load.request(() -> given()
+                .pathParam("id", postId)
+                .when()
+                .get("/posts/{id}")
+                .getStatusCode());
+        });
+        
+        // Each request's latency reaches the report through TimingFilter; the profile goes in the messages
+        LoadGenerator.LoadResult result = load.run();
+        
+        assertTrue(result.getRequests() > 0, "Load run should complete at least one request");
+        assertEquals(result.getErrors(), 0L, "Requests failed under load: " + result);
+        assertTrue(result.percentile(99) < TestConfig.LOAD_P99_BUDGET_MS,
+            "p99 latency under load exceeds " + TestConfig.LOAD_P99_BUDGET_MS + "ms: " + result);
+    }
+    
+    @Test(description = "Test every comment in a streamed fixture against the API")
+    public void testCommentsFromFixture() throws InterruptedException {
+        CaseStream.Outcome outcome = CaseStream.jsonl("fixtures/cases/comments.jsonl", "id", "postId", "email")
+            .runParallel(TestConfig.DATA_CONCURRENCY, testCase -> given()
+                .pathParam("id", testCase[0])
+                .when()
+                .get("/comments/{id}")
+                .then()
+                .statusCode(200)
+                .body("postId", equalTo(testCase[1]))
+                .body("email", equalTo(testCase[2])));
+        
+        assertTrue(outcome.getTotal() > 0, "Fixture should contain cases");
+        assertEquals(outcome.getFailed(), 0L, "Comment cases failed: " + outcome);
+    }
+    
+    @Test(description = "Test a post with its comments and author, fetched concurrently")
+    public void testPostScenarioAsync() {
+        // Post first, then its comments and its user side by side
+        CompletableFuture<Response> post = asyncApi.get("/posts/{id}", 1);
+        CompletableFuture<Response> comments = post.thenCompose(p -> asyncApi.get("/posts/{id}/comments", p.<Integer>path("id")));
+        CompletableFuture<Response> user = post.thenCompose(p -> asyncApi.get("/users/{id}", p.<Integer>path("userId")));
+        AsyncApi.await(CompletableFuture.allOf(comments, user));
+        
+        post.join().then()
+            .statusCode(200)
+            .body("id", equalTo(1));
+        comments.join().then()
+            .statusCode(200)
+            .body("size()", greaterThan(0))
+            .body("postId", everyItem(equalTo(1)));
+        user.join().then()
+            .statusCode(200)
+            .body("id", equalTo(post.join().path("userId")));
+    }
+    
+    @Test(description = "Test fetching many posts as one concurrent batch")
+    public void testBatchGetPostsAsync() {
+        List<Integer> ids = IntStream.rangeClosed(1, TestConfig.DATA_POST_COUNT).boxed().collect(Collectors.toList());
+        List<Response> posts = AsyncApi.await(asyncApi.getAll("/posts/{id}", ids));
+        
+        assertEquals(posts.size(), ids.size(), "Every post should get a response");
+        for (int i = 0; i < ids.size(); i++) {
+            posts.get(i).then()
+                .statusCode(200)
+                .body("id", equalTo(ids.get(i)));
+        }
+    }
+    
+    @Test(description = "Test keep-alive connections are reused across requests")
+    public void testConnectionReuse() {
+        long reusedBefore = apiClient.getConnectionsReused();
+        for (int i = 0; i < 5; i++) {
+            given()
+                .when()
+                .get("/posts/1")
+                .then()
+                .statusCode(200);
+        }
+        assertTrue(apiClient.getConnectionsReused() > reusedBefore,
+            "Sequential requests should reuse pooled connections: " + apiClient);
     }
     
     @AfterClass
     public void tearDown() {
-        report.generateReport();
+        RestAssured.reset();
+        apiClient.shutdown();
+        if (stubServer != null) {
+            stubServer.stop();
+        }
     }
 } 
\ No newline at end of file
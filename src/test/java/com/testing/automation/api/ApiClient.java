@@ -0,0 +1,147 @@
+package com.testing.automation.api;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Shared keep-alive connection pool behind every RestAssured request.
+ *
+ * RestAssured still builds a lightweight client per request, so per-request settings never
+ * leak between threads, but all of them draw connections from one pooling manager, so TCP and
+ * TLS handshakes happen once per pooled connection instead of once per request. The pool
+ * counts connections opened and reused, time spent opening them (connect plus TLS handshake)
+ * and time requests spent waiting for a free connection.
+ *
+ * RestAssured only drives Apache HttpClient 4, so HTTP/2 is not available on this path.
+ */
+@SuppressWarnings("deprecation") // RestAssured requires the HttpClient 4.x AbstractHttpClient API
+public class ApiClient {
+    private final LongAdder leased = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder handshakeNanos = new LongAdder();
+    private final LongAdder poolWaitNanos = new LongAdder();
+    private final PoolingClientConnectionManager connectionManager;
+    private final int timeoutMillis;
+
+    /** {@code timeoutMillis} bounds connecting, each read and waiting for a pooled connection. */
+    public ApiClient(int maxTotal, int maxPerRoute, int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        connectionManager = new InstrumentedConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+    }
+
+    /** Routes every subsequent RestAssured request through this pool. */
+    public void install() {
+        HttpClientConfig httpClientConfig = RestAssured.config().getHttpClientConfig()
+            .httpClientFactory(this::createHttpClient)
+            .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, timeoutMillis)
+            .setParam(CoreConnectionPNames.SO_TIMEOUT, timeoutMillis)
+            .setParam(CoreConnectionPNames.TCP_NODELAY, true)
+            .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) timeoutMillis);
+        RestAssured.config = RestAssured.config().httpClient(httpClientConfig);
+    }
+
+    public HttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        // Read each body up front, so its connection goes back to the pool even when a test
+        // only checks the status code and never consumes the stream
+        client.addResponseInterceptor((response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming()) {
+                response.setEntity(new BufferedHttpEntity(entity));
+            }
+        });
+        return client;
+    }
+
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+
+    public long getConnectionsLeased() { return leased.sum(); }
+    public long getConnectionsOpened() { return opened.sum(); }
+    public long getConnectionsReused() { return reused.sum(); }
+    public double getHandshakeMillis() { return handshakeNanos.sum() / 1e6; }
+    public double getPoolWaitMillis() { return poolWaitNanos.sum() / 1e6; }
+
+    @Override
+    public String toString() {
+        return String.format("leased=%d opened=%d reused=%d handshake=%.1fms poolWait=%.1fms",
+            getConnectionsLeased(), getConnectionsOpened(), getConnectionsReused(),
+            getHandshakeMillis(), getPoolWaitMillis());
+    }
+
+    private class InstrumentedConnectionManager extends PoolingClientConnectionManager {
+
+        InstrumentedConnectionManager() {
+            super(SchemeRegistryFactory.createDefault());
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemeRegistry) {
+            return new DefaultClientConnectionOperator(schemeRegistry) {
+                @Override
+                public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                                           HttpContext context, HttpParams params) throws IOException {
+                    long start = System.nanoTime();
+                    try {
+                        super.openConnection(conn, target, local, context, params);
+                    } finally {
+                        opened.increment();
+                        handshakeNanos.add(System.nanoTime() - start);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest request = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    poolWaitNanos.add(System.nanoTime() - start);
+                    leased.increment();
+                    // A pooled connection comes back already open; a fresh one is opened afterwards
+                    if (connection.isOpen()) {
+                        reused.increment();
+                    }
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.testing.automation.api;
+
+import com.testing.automation.utils.CircuitBreaker;
+import com.testing.automation.utils.FlightEvents;
+import com.testing.automation.utils.SuiteMetrics;
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking GETs for scenarios that make several requests, on {@link HttpClient}.
+ *
+ * Every call returns at once with a future of a RestAssured {@link Response}, so independent
+ * requests overlap, dependent ones chain with {@code thenCompose}, and each response is still
+ * checked with {@code then().statusCode(...).body(...)}. A scenario takes as long as its
+ * slowest chain rather than the sum of its requests. At most {@code maxConcurrency} requests
+ * are on the wire; the rest queue without holding a thread. Timings are recorded in
+ * {@link TestReport} under the test that made the call, like {@link TimingFilter} does, and
+ * calls are guarded by the target's {@link CircuitBreaker} like {@link CircuitBreakerFilter}
+ * and kept for failure artifacts like {@link ExchangeRecorder} does.
+ *
+ * <pre>
+ * Response user = AsyncApi.await(api.get("/posts/{id}", 1)
+ *     .thenCompose(post -> api.get("/users/{id}", post.<Integer>path("userId"))));
+ * user.then().statusCode(200);
+ * </pre>
+ */
+public class AsyncApi {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(TestConfig.API_TIMEOUT_MS);
+
+    private final String baseUrl;
+    private final CircuitBreaker breaker;
+    private final int maxConcurrency;
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    // Drain requests not yet served by the thread draining; only the thread raising it from 0 drains
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public AsyncApi(String baseUrl, int maxConcurrency) {
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.breaker = CircuitBreaker.forUrl(this.baseUrl);
+        this.maxConcurrency = maxConcurrency;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    }
+
+    /** GET {@code pathTemplate} with its {placeholders} filled from {@code pathParams} in order. */
+    public CompletableFuture<Response> get(String pathTemplate, Object... pathParams) {
+        String path = expand(pathTemplate, pathParams);
+        String testName = TestReport.currentTestName();
+        ExchangeRecorder.Ring recent = ExchangeRecorder.recent();
+        return limit(() -> {
+            breaker.checkAvailable();
+            long startedAt = System.currentTimeMillis();
+            long start = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+            FlightEvents.RequestEvent event = new FlightEvents.RequestEvent();
+            SuiteMetrics.getInstance().requestStarted();
+            event.begin();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    long elapsed = System.nanoTime() - start;
+                    event.end();
+                    SuiteMetrics.getInstance().requestFinished();
+                    if (event.shouldCommit()) {
+                        event.test = testName;
+                        event.method = "GET";
+                        event.path = pathTemplate;
+                        if (response != null) {
+                            event.status = response.statusCode();
+                            event.bytes = response.body().length;
+                        }
+                        event.commit();
+                    }
+                    TestReport.getInstance().recordTiming(testName, "GET " + pathTemplate, elapsed);
+                    recent.add(testName, () -> ExchangeRecorder.entry(startedAt, elapsed, "GET", request.uri().toString(),
+                        request.headers().map(), null, response != null ? response.statusCode() : 0,
+                        response != null ? response.headers().map() : Map.of(),
+                        response != null ? response.headers().firstValue("Content-Type").orElse("") : "",
+                        response != null ? new String(response.body(), StandardCharsets.UTF_8) : "",
+                        error != null ? error.toString() : null));
+                    if (error != null) {
+                        breaker.recordFailure(error);
+                    } else if (response.statusCode() >= 500) {
+                        breaker.recordFailure("HTTP " + response.statusCode() + " from GET " + pathTemplate);
+                    } else {
+                        breaker.recordSuccess(elapsed);
+                    }
+                })
+                .thenApply(AsyncApi::toRestAssured);
+        });
+    }
+
+    /** One GET per value of a single-placeholder template, e.g. /posts/{id} for every id. */
+    public CompletableFuture<List<Response>> getAll(String pathTemplate, Iterable<?> values) {
+        List<CompletableFuture<Response>> calls = new ArrayList<>();
+        for (Object value : values) {
+            calls.add(get(pathTemplate, value));
+        }
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture<?>[]::new))
+            .thenApply(done -> {
+                List<Response> responses = new ArrayList<>(calls.size());
+                for (CompletableFuture<Response> call : calls) {
+                    responses.add(call.join());
+                }
+                return responses;
+            });
+    }
+
+    /**
+     * Waits for a scenario and returns its result. An assertion that failed inside a stage is
+     * rethrown as is, so the test reports it like a synchronous one.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Async request failed: " + cause, cause);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Async scenario did not finish within " + REQUEST_TIMEOUT.multipliedBy(2), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for async requests", e);
+        }
+    }
+
+    // Starts the call now if a slot is free, otherwise when a running call finishes
+    private <T> CompletableFuture<T> limit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            CompletableFuture<T> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                inFlight.decrementAndGet();
+                drain();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    // A call that completes at once, e.g. failed by an open breaker, drains again from its own
+    // callback; that nested drain only asks the running loop for another pass, so the stack
+    // stays flat however many calls are queued
+    private void drain() {
+        if (drainRequests.getAndIncrement() > 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            while (!waiting.isEmpty()) {
+                int running = inFlight.get();
+                if (running >= maxConcurrency) {
+                    break;
+                }
+                if (inFlight.compareAndSet(running, running + 1)) {
+                    Runnable next = waiting.poll();
+                    if (next == null) {
+                        inFlight.decrementAndGet();
+                        continue;
+                    }
+                    next.run();
+                }
+            }
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private static Response toRestAssured(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                headers.add(new Header(header.getKey(), value));
+            }
+        }
+        return new ResponseBuilder()
+            .setStatusCode(response.statusCode())
+            .setStatusLine("HTTP/1.1 " + response.statusCode())
+            .setHeaders(new Headers(headers))
+            .setContentType(response.headers().firstValue("Content-Type").orElse(""))
+            .setBody(response.body())
+            .build();
+    }
+
+    private static String expand(String pathTemplate, Object[] pathParams) {
+        StringBuilder path = new StringBuilder();
+        int param = 0;
+        int from = 0;
+        int open;
+        while ((open = pathTemplate.indexOf('{', from)) >= 0) {
+            int close = pathTemplate.indexOf('}', open);
+            if (close < 0 || param >= pathParams.length) {
+                throw new IllegalArgumentException("No value for path parameter in " + pathTemplate);
+            }
+            path.append(pathTemplate, from, open)
+                .append(URLEncoder.encode(String.valueOf(pathParams[param++]), StandardCharsets.UTF_8).replace("+", "%20"));
+            from = close + 1;
+        }
+        return path.append(pathTemplate.substring(from)).toString();
+    }
+}
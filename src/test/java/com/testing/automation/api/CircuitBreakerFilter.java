@@ -0,0 +1,39 @@
+package com.testing.automation.api;
+
+import com.testing.automation.utils.CircuitBreaker;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that guards every request with the {@link CircuitBreaker} of its target.
+ * A request to an origin whose breaker is open is not sent and its test is skipped; connection
+ * errors, timeouts, 5xx responses and responses over the latency budget count as failures.
+ */
+public class CircuitBreakerFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(requestSpec.getURI());
+        breaker.checkAvailable();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Throwable e) {
+            breaker.recordFailure(e);
+            throw e;
+        }
+        if (response.getStatusCode() >= 500) {
+            breaker.recordFailure("HTTP " + response.getStatusCode() + " from " + requestSpec.getMethod() + " "
+                + requestSpec.getUserDefinedPath());
+        } else {
+            breaker.recordSuccess(System.nanoTime() - start);
+        }
+        return response;
+    }
+}
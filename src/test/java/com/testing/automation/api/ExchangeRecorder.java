@@ -0,0 +1,198 @@
+package com.testing.automation.api;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.testing.automation.utils.ArtifactPipeline;
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * RestAssured filter that keeps the last {@link TestConfig#ARTIFACT_EXCHANGES} requests and
+ * responses of each thread, for the artifacts of a failed test.
+ *
+ * On the passing path an exchange costs one reference stored in a ring; its HAR entry is only
+ * built when the test that made it fails, and the failing test's exchanges are then written to
+ * {@code exchanges.har} by the {@link ArtifactPipeline}. {@link AsyncApi} records its calls in
+ * the ring of the thread that made them.
+ */
+public class ExchangeRecorder implements Filter {
+    private static final ThreadLocal<Ring> RECENT = ThreadLocal.withInitial(() -> new Ring(TestConfig.ARTIFACT_EXCHANGES));
+
+    static {
+        ArtifactPipeline.register(ExchangeRecorder::capture);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Ring recent = RECENT.get();
+        String testName = TestReport.currentTestName();
+        long startedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            long elapsed = System.nanoTime() - start;
+            recent.add(testName, () -> entry(startedAt, elapsed, requestSpec.getMethod(), requestSpec.getURI(),
+                toMap(requestSpec.getHeaders()), bodyOf(requestSpec.getBody()), response.getStatusCode(),
+                toMap(response.getHeaders()), response.getContentType(), response.asString(), null));
+            return response;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            recent.add(testName, () -> entry(startedAt, elapsed, requestSpec.getMethod(), requestSpec.getURI(),
+                toMap(requestSpec.getHeaders()), bodyOf(requestSpec.getBody()), 0, Map.of(), "", "", e.toString()));
+            throw e;
+        }
+    }
+
+    /** The calling thread's ring, for requests that complete on another thread. */
+    static Ring recent() {
+        return RECENT.get();
+    }
+
+    // HAR 1.2 entry; the _error field carries a request that got no response
+    static JsonObject entry(long startedAt, long elapsedNanos, String method, String url,
+                            Map<String, List<String>> requestHeaders, String requestBody, int status,
+                            Map<String, List<String>> responseHeaders, String mimeType, String responseBody,
+                            String error) {
+        JsonObject request = new JsonObject();
+        request.addProperty("method", method);
+        request.addProperty("url", url);
+        request.addProperty("httpVersion", "HTTP/1.1");
+        request.add("headers", harHeaders(requestHeaders));
+        if (requestBody != null) {
+            JsonObject postData = new JsonObject();
+            postData.addProperty("mimeType", firstValue(requestHeaders, "Content-Type"));
+            postData.addProperty("text", requestBody);
+            request.add("postData", postData);
+        }
+        JsonObject content = new JsonObject();
+        content.addProperty("size", responseBody.getBytes(StandardCharsets.UTF_8).length);
+        content.addProperty("mimeType", mimeType);
+        content.addProperty("text", responseBody);
+        JsonObject response = new JsonObject();
+        response.addProperty("status", status);
+        response.addProperty("httpVersion", "HTTP/1.1");
+        response.add("headers", harHeaders(responseHeaders));
+        response.add("content", content);
+        JsonObject entry = new JsonObject();
+        entry.addProperty("startedDateTime", Instant.ofEpochMilli(startedAt).toString());
+        entry.addProperty("time", elapsedNanos / 1e6);
+        entry.add("request", request);
+        entry.add("response", response);
+        if (error != null) {
+            entry.addProperty("_error", error);
+        }
+        return entry;
+    }
+
+    private static void capture(Map<String, byte[]> files) {
+        List<JsonObject> entries = RECENT.get().entriesOf(TestReport.currentTestName());
+        if (entries.isEmpty()) {
+            return;
+        }
+        JsonArray harEntries = new JsonArray();
+        entries.forEach(harEntries::add);
+        JsonObject creator = new JsonObject();
+        creator.addProperty("name", "api-ui-testing");
+        creator.addProperty("version", "1.0");
+        JsonObject log = new JsonObject();
+        log.addProperty("version", "1.2");
+        log.add("creator", creator);
+        log.add("entries", harEntries);
+        JsonObject har = new JsonObject();
+        har.add("log", log);
+        files.put("exchanges.har", new GsonBuilder().setPrettyPrinting().create().toJson(har)
+            .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, List<String>> toMap(Headers headers) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (Header header : headers) {
+            map.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        return map;
+    }
+
+    private static JsonArray harHeaders(Map<String, List<String>> headers) {
+        JsonArray array = new JsonArray();
+        headers.forEach((name, values) -> values.forEach(value -> {
+            JsonObject header = new JsonObject();
+            header.addProperty("name", name);
+            header.addProperty("value", value);
+            array.add(header);
+        }));
+        return array;
+    }
+
+    private static String firstValue(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return "";
+    }
+
+    private static String bodyOf(Object body) {
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body.toString();
+    }
+
+    /** Fixed-size ring of one thread's latest exchanges, with the test that made each. */
+    static class Ring {
+        private final String[] tests;
+        private final List<Supplier<JsonObject>> exchanges;
+        private int next;
+
+        Ring(int size) {
+            tests = new String[size];
+            exchanges = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                exchanges.add(null);
+            }
+        }
+
+        synchronized void add(String testName, Supplier<JsonObject> exchange) {
+            if (tests.length == 0) {
+                return;
+            }
+            tests[next] = testName;
+            exchanges.set(next, exchange);
+            next = (next + 1) % tests.length;
+        }
+
+        // Oldest first
+        synchronized List<JsonObject> entriesOf(String testName) {
+            List<JsonObject> entries = new ArrayList<>();
+            for (int i = 0; i < tests.length; i++) {
+                int slot = (next + i) % tests.length;
+                if (testName.equals(tests[slot])) {
+                    try {
+                        entries.add(exchanges.get(slot).get());
+                    } catch (RuntimeException e) {
+                        // Body no longer readable; the other exchanges are still worth having
+                    }
+                }
+            }
+            return entries;
+        }
+    }
+}
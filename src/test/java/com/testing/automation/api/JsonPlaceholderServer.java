@@ -0,0 +1,370 @@
+package com.testing.automation.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded stand-in for jsonplaceholder.typicode.com. Serves posts, comments and users
+ * loaded from classpath fixtures, with the same routes, status codes and payload shapes
+ * as the public API.
+ *
+ * When {@code persistWrites} is false (the default, matching the public API) POST, PUT,
+ * PATCH and DELETE are validated and answered but leave the data untouched, so tests can
+ * run in any order or in parallel against the same instance.
+ */
+public class JsonPlaceholderServer {
+    private static final String FIXTURE_DIR = "/fixtures/jsonplaceholder/";
+    private static final String[] RESOURCES = {"users", "posts", "comments"};
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final Gson gson = new Gson();
+    private final Map<String, Resource> resources = new HashMap<>();
+    private final boolean persistWrites;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public JsonPlaceholderServer(boolean persistWrites) {
+        this.persistWrites = persistWrites;
+        for (String name : RESOURCES) {
+            resources.put(name, loadFixture(name));
+        }
+    }
+
+    public static JsonPlaceholderServer start(boolean persistWrites) {
+        JsonPlaceholderServer stub = new JsonPlaceholderServer(persistWrites);
+        stub.start();
+        return stub;
+    }
+
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        // Without TCP_NODELAY a reused keep-alive connection waits ~40ms on Nagle and delayed ACK per response.
+        // The JDK reads this once, when the JVM's first HttpServer is created.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not bind JSONPlaceholder stub server", e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jsonplaceholder-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Reply reply;
+            try {
+                reply = route(exchange);
+            } catch (JsonParseException | IllegalStateException e) {
+                reply = new Reply(400, new JsonObject());
+            }
+            byte[] payload = gson.toJson(reply.body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(reply.status, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Reply route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] segments = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+        Resource resource = resources.get(segments[0]);
+        if (resource == null || segments.length > 3) {
+            return Reply.notFound();
+        }
+
+        // Collection routes: /posts, /comments?postId=1
+        if (segments.length == 1) {
+            switch (method) {
+                case "GET":
+                    return new Reply(200, resource.query(parseQuery(exchange.getRequestURI().getRawQuery())));
+                case "POST":
+                    return new Reply(201, resource.create(readBody(exchange), persistWrites));
+                default:
+                    return Reply.notFound();
+            }
+        }
+
+        Integer id = parseId(segments[1]);
+        if (id == null) {
+            return Reply.notFound();
+        }
+
+        // Nested routes: /posts/1/comments
+        if (segments.length == 3) {
+            Resource child = resources.get(segments[2]);
+            if (child == null || !"GET".equals(method)) {
+                return Reply.notFound();
+            }
+            return new Reply(200, child.query(Map.of(singular(segments[0]) + "Id", String.valueOf(id))));
+        }
+
+        // Item routes: /posts/1
+        JsonObject result;
+        switch (method) {
+            case "GET":
+                result = resource.get(id);
+                break;
+            case "PUT":
+                result = resource.replace(id, readBody(exchange), persistWrites);
+                break;
+            case "PATCH":
+                result = resource.merge(id, readBody(exchange), persistWrites);
+                break;
+            case "DELETE":
+                result = resource.delete(id, persistWrites) ? new JsonObject() : null;
+                break;
+            default:
+                return Reply.notFound();
+        }
+        return result != null ? new Reply(200, result) : Reply.notFound();
+    }
+
+    private JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            return element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static Integer parseId(String segment) {
+        try {
+            return Integer.valueOf(segment);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String singular(String resourceName) {
+        return resourceName.endsWith("s") ? resourceName.substring(0, resourceName.length() - 1) : resourceName;
+    }
+
+    private static Resource loadFixture(String name) {
+        String path = FIXTURE_DIR + name + ".json";
+        try (InputStream in = JsonPlaceholderServer.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + path);
+            }
+            JsonArray items = JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8)).getAsJsonArray();
+            Resource resource = new Resource();
+            for (JsonElement item : items) {
+                resource.put(item.getAsJsonObject());
+            }
+            return resource;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read fixture " + path, e);
+        }
+    }
+
+    private static class Reply {
+        private final int status;
+        private final JsonElement body;
+
+        Reply(int status, JsonElement body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Reply notFound() {
+            return new Reply(404, new JsonObject());
+        }
+    }
+
+    /**
+     * One collection: items by id plus an index for every foreign-key field ({@code postId},
+     * {@code userId}, ...) so nested routes and filters don't scan the whole collection.
+     */
+    private static class Resource {
+        private final ConcurrentNavigableMap<Integer, JsonObject> byId = new ConcurrentSkipListMap<>();
+        private final Map<String, Map<Integer, NavigableSet<Integer>>> foreignKeys = new ConcurrentHashMap<>();
+        private final AtomicInteger lastId = new AtomicInteger();
+
+        // Stored items are never mutated in place, writes swap in a new object
+        JsonObject get(int id) {
+            return byId.get(id);
+        }
+
+        JsonArray query(Map<String, String> filters) {
+            Collection<Integer> ids = byId.keySet();
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                Map<Integer, NavigableSet<Integer>> index = foreignKeys.get(filter.getKey());
+                Integer value = parseId(filter.getValue());
+                if (index != null && value != null) {
+                    ids = index.getOrDefault(value, new ConcurrentSkipListSet<>());
+                    break;
+                }
+            }
+            JsonArray result = new JsonArray();
+            for (Integer id : ids) {
+                JsonObject item = byId.get(id);
+                if (item != null && matches(item, filters)) {
+                    result.add(item);
+                }
+            }
+            return result;
+        }
+
+        synchronized JsonObject create(JsonObject body, boolean persist) {
+            JsonObject item = body.deepCopy();
+            int id = persist ? lastId.incrementAndGet() : lastId.get() + 1;
+            item.addProperty("id", id);
+            if (persist) {
+                put(item);
+            }
+            return item;
+        }
+
+        synchronized JsonObject replace(int id, JsonObject body, boolean persist) {
+            if (!byId.containsKey(id)) {
+                return null;
+            }
+            JsonObject item = body.deepCopy();
+            item.addProperty("id", id);
+            if (persist) {
+                unindex(byId.get(id));
+                put(item);
+            }
+            return item;
+        }
+
+        synchronized JsonObject merge(int id, JsonObject body, boolean persist) {
+            JsonObject existing = byId.get(id);
+            if (existing == null) {
+                return null;
+            }
+            JsonObject item = existing.deepCopy();
+            for (Map.Entry<String, JsonElement> field : body.entrySet()) {
+                item.add(field.getKey(), field.getValue());
+            }
+            item.addProperty("id", id);
+            if (persist) {
+                unindex(existing);
+                put(item);
+            }
+            return item;
+        }
+
+        synchronized boolean delete(int id, boolean persist) {
+            JsonObject existing = byId.get(id);
+            if (existing == null) {
+                return false;
+            }
+            if (persist) {
+                unindex(existing);
+                byId.remove(id);
+            }
+            return true;
+        }
+
+        private void put(JsonObject item) {
+            int id = item.get("id").getAsInt();
+            byId.put(id, item);
+            lastId.accumulateAndGet(id, Math::max);
+            for (Map.Entry<String, JsonElement> field : item.entrySet()) {
+                Integer value = foreignKeyValue(field);
+                if (value != null) {
+                    foreignKeys.computeIfAbsent(field.getKey(), key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(value, key -> new ConcurrentSkipListSet<>())
+                        .add(id);
+                }
+            }
+        }
+
+        private void unindex(JsonObject item) {
+            int id = item.get("id").getAsInt();
+            for (Map.Entry<String, JsonElement> field : item.entrySet()) {
+                Integer value = foreignKeyValue(field);
+                if (value != null) {
+                    NavigableSet<Integer> ids = foreignKeys.get(field.getKey()).get(value);
+                    if (ids != null) {
+                        ids.remove(id);
+                    }
+                }
+            }
+        }
+
+        private static Integer foreignKeyValue(Map.Entry<String, JsonElement> field) {
+            String name = field.getKey();
+            JsonElement value = field.getValue();
+            if (!name.endsWith("Id") || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+                return null;
+            }
+            return value.getAsInt();
+        }
+
+        private static boolean matches(JsonObject item, Map<String, String> filters) {
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                JsonElement value = item.get(filter.getKey());
+                if (value == null || !value.isJsonPrimitive() || !value.getAsString().equals(filter.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.testing.automation.api;
+
+import com.testing.automation.utils.LatencyHistogram;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Drives a weighted mix of requests from a pool of worker threads for a fixed duration
+ * after a warm-up, and reports throughput and latency percentiles.
+ *
+ * With a target rate the generator is open-loop: request N is scheduled for
+ * {@code start + N / rate} and its latency is measured from that intended start, so time
+ * spent queued behind a slow response is counted (coordinated-omission correction).
+ * Without a target rate each worker fires back-to-back as fast as responses arrive.
+ */
+public class LoadGenerator {
+    private final List<Callable<Integer>> mix = new ArrayList<>();
+    private int concurrency = 4;
+    private double targetRate;
+    private Duration warmUp = Duration.ofSeconds(1);
+    private Duration duration = Duration.ofSeconds(2);
+
+    /** Adds a request to the mix. The callable performs the request and returns its HTTP status. */
+    public LoadGenerator request(Callable<Integer> call) {
+        return request(call, 1);
+    }
+
+    public LoadGenerator request(Callable<Integer> call, int weight) {
+        for (int i = 0; i < weight; i++) {
+            mix.add(call);
+        }
+        return this;
+    }
+
+    public LoadGenerator concurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /** Requests per second across all workers, or 0 for closed-loop mode. */
+    public LoadGenerator targetRate(double targetRate) {
+        this.targetRate = targetRate;
+        return this;
+    }
+
+    public LoadGenerator warmUp(Duration warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
+    public LoadGenerator duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadResult run() throws InterruptedException {
+        if (mix.isEmpty()) {
+            throw new IllegalStateException("No requests configured");
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (!warmUp.isZero()) {
+                runPhase(workers, warmUp);
+            }
+            long start = System.nanoTime();
+            Recorder[] recorders = runPhase(workers, duration);
+            return new LoadResult(recorders, System.nanoTime() - start);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Recorder[] runPhase(ExecutorService workers, Duration phase) throws InterruptedException {
+        Recorder[] recorders = new Recorder[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicLong nextSlot = new AtomicLong();
+        long intervalNanos = targetRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / targetRate) : 0;
+        // Requests issued by the workers are attributed to the test that started the run
+        ITestResult owner = Reporter.getCurrentTestResult();
+        long phaseStart = System.nanoTime();
+        long deadline = phaseStart + phase.toNanos();
+
+        for (int w = 0; w < concurrency; w++) {
+            Recorder recorder = new Recorder();
+            recorders[w] = recorder;
+            workers.execute(() -> {
+                Reporter.setCurrentTestResult(owner);
+                try {
+                    while (true) {
+                        long slot = nextSlot.getAndIncrement();
+                        long intendedStart = intervalNanos > 0 ? phaseStart + slot * intervalNanos : System.nanoTime();
+                        if (intendedStart >= deadline) {
+                            break;
+                        }
+                        long now;
+                        while ((now = System.nanoTime()) < intendedStart) {
+                            LockSupport.parkNanos(intendedStart - now);
+                        }
+
+                        boolean ok;
+                        try {
+                            int status = mix.get((int) (slot % mix.size())).call();
+                            ok = status >= 200 && status < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        recorder.record(System.nanoTime() - intendedStart, ok);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return recorders;
+    }
+
+    /** Per-worker histogram, so the hot path never contends with other workers. */
+    private static class Recorder {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            latencies.recordNanos(latencyNanos);
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    public static class LoadResult {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final long errors;
+        private final long elapsedNanos;
+
+        LoadResult(Recorder[] recorders, long elapsedNanos) {
+            long errorCount = 0;
+            for (Recorder recorder : recorders) {
+                latencies.add(recorder.latencies);
+                errorCount += recorder.errors;
+            }
+            this.errors = errorCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRequests() { return latencies.getCount(); }
+        public long getErrors() { return errors; }
+        public LatencyHistogram getLatencies() { return latencies; }
+
+        public double getThroughput() {
+            return getRequests() / (elapsedNanos / 1e9);
+        }
+
+        /** Latency in milliseconds at the given percentile (0-100). */
+        public double percentile(double percentile) {
+            return latencies.getPercentileMillis(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms",
+                getRequests(), errors, getThroughput(),
+                percentile(50), percentile(90), percentile(99), percentile(99.9));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.testing.automation.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assertions on a top-level JSON array that are checked in one pass over the token stream.
+ *
+ * Unlike {@code response.jsonPath().getList("")}, no element is ever materialized: values
+ * that no rule looks at are skipped token by token, and the first violation fails immediately
+ * without reading the rest. The body itself is already in memory, since {@link ApiClient}
+ * buffers every response, so what this saves is the parsed object tree on top of it.
+ *
+ * <pre>
+ * StreamingJsonAssert.assertThat(response)
+ *     .isNotEmpty()
+ *     .everyElementHas("postId", "id", "name", "email", "body")
+ *     .verify();
+ * </pre>
+ */
+public class StreamingJsonAssert {
+    private final Reader source;
+    private boolean requireNonEmpty;
+    private int expectedSize = -1;
+    private final List<String> requiredFields = new ArrayList<>();
+
+    private StreamingJsonAssert(Reader source) {
+        this.source = source;
+    }
+
+    public static StreamingJsonAssert assertThat(Response response) {
+        return assertThat(response.asInputStream());
+    }
+
+    public static StreamingJsonAssert assertThat(InputStream body) {
+        return new StreamingJsonAssert(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    public static StreamingJsonAssert assertThat(String body) {
+        return new StreamingJsonAssert(new StringReader(body));
+    }
+
+    public StreamingJsonAssert isNotEmpty() {
+        requireNonEmpty = true;
+        return this;
+    }
+
+    public StreamingJsonAssert hasSize(int size) {
+        expectedSize = size;
+        return this;
+    }
+
+    /** Every element must be an object with a non-null value for each of {@code fields}. */
+    public StreamingJsonAssert everyElementHas(String... fields) {
+        requiredFields.addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    /** Runs every rule in a single pass and returns the number of elements read. */
+    public int verify() {
+        Map<String, Integer> fieldSlots = new HashMap<>();
+        for (String field : requiredFields) {
+            fieldSlots.putIfAbsent(field, fieldSlots.size());
+        }
+        boolean[] seen = new boolean[fieldSlots.size()];
+
+        try (JsonReader reader = new JsonReader(source)) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new AssertionError("Expected a JSON array but found " + reader.peek());
+            }
+            reader.beginArray();
+            int count = 0;
+            while (reader.hasNext()) {
+                if (expectedSize >= 0 && count == expectedSize) {
+                    throw new AssertionError("Expected " + expectedSize + " elements but found more");
+                }
+                if (fieldSlots.isEmpty()) {
+                    reader.skipValue();
+                } else {
+                    checkElement(reader, count, fieldSlots, seen);
+                }
+                count++;
+            }
+            reader.endArray();
+
+            if (requireNonEmpty && count == 0) {
+                throw new AssertionError("Expected a non-empty array");
+            }
+            if (expectedSize >= 0 && count != expectedSize) {
+                throw new AssertionError("Expected " + expectedSize + " elements but found " + count);
+            }
+            return count;
+        } catch (IOException | IllegalStateException e) {
+            throw new AssertionError("Response body is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkElement(JsonReader reader, int index, Map<String, Integer> fieldSlots, boolean[] seen)
+            throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new AssertionError("Element " + index + " should be an object but is " + reader.peek());
+        }
+        Arrays.fill(seen, false);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Integer slot = fieldSlots.get(reader.nextName());
+            if (slot != null && reader.peek() != JsonToken.NULL) {
+                seen[slot] = true;
+            }
+            reader.skipValue();
+        }
+        reader.endObject();
+
+        for (Map.Entry<String, Integer> field : fieldSlots.entrySet()) {
+            if (!seen[field.getValue()]) {
+                throw new AssertionError("Element " + index + " is missing non-null field '" + field.getKey() + "'");
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.testing.automation.api;
+
+import com.testing.automation.utils.FlightEvents;
+import com.testing.automation.utils.SuiteMetrics;
+import com.testing.automation.utils.TestReport;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that times every request and records it in a {@link TestReport},
+ * keyed by the running test and by method plus path template (e.g. {@code GET /posts/{id}}).
+ * Requests in flight are counted in {@link SuiteMetrics}, and each request is a JFR
+ * {@link FlightEvents.RequestEvent}.
+ */
+public class TimingFilter implements Filter {
+    private final TestReport report;
+
+    public TimingFilter(TestReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        SuiteMetrics metrics = SuiteMetrics.getInstance();
+        FlightEvents.RequestEvent event = new FlightEvents.RequestEvent();
+        metrics.requestStarted();
+        event.begin();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            event.end();
+            metrics.requestFinished();
+            String testName = TestReport.currentTestName();
+            report.recordTiming(testName, requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(),
+                System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.test = testName;
+                event.method = requestSpec.getMethod();
+                event.path = requestSpec.getUserDefinedPath();
+                if (response != null) {
+                    event.status = response.getStatusCode();
+                    event.bytes = response.asByteArray().length;
+                }
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.testing.automation.ui;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+/**
+ * Failure artifacts of a browser, as raw bytes for the {@link com.testing.automation.utils.ArtifactPipeline}:
+ * URL, screenshot, page source, console log and the page's Resource Timing entries. Each is
+ * captured on its own, so a crashed renderer still yields whatever it can.
+ */
+class BrowserArtifacts {
+    private static final String RESOURCES_SCRIPT =
+        "return JSON.stringify(performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource')));";
+
+    private BrowserArtifacts() {
+    }
+
+    static void capture(WebDriver driver, Map<String, byte[]> files) {
+        try {
+            files.put("url.txt", utf8(driver.getCurrentUrl()));
+        } catch (WebDriverException e) {
+            files.put("url.txt", utf8("unavailable: " + e.getMessage()));
+        }
+        try {
+            files.put("screenshot.png", ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        } catch (WebDriverException e) {
+            // No screenshot without a live renderer
+        }
+        try {
+            files.put("page.html", utf8(driver.getPageSource()));
+        } catch (WebDriverException e) {
+            // Same
+        }
+        try {
+            StringBuilder console = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(entry).append('\n');
+            }
+            files.put("console.log", utf8(console.toString()));
+        } catch (WebDriverException e) {
+            // Browser logging not enabled for this session
+        }
+        try {
+            Object resources = ((JavascriptExecutor) driver).executeScript(RESOURCES_SCRIPT);
+            if (resources != null) {
+                files.put("resources.json", utf8(resources.toString()));
+            }
+        } catch (WebDriverException e) {
+            // Same as the screenshot
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local, checksummed store of the chromedriver binary, so starting a browser does not wait on
+ * WebDriverManager's browser version detection and remote metadata lookups, and works offline.
+ *
+ * The first resolution (cold) goes through WebDriverManager, copies the driver into
+ * {@link TestConfig#UI_DRIVER_STORE_DIR} and pins it in {@code chromedriver.properties} with its
+ * version and SHA-256, and the Chrome binary and version it was resolved for. Later runs (warm)
+ * only check that the pinned file is there and matches its checksum, and ask that Chrome binary
+ * for its version. The pin is kept until it is refreshed with {@code mvn test -Pdrivers}, its file
+ * no longer matches, Chrome reports another major version, or a session fails to start on it
+ * (see {@link DriverFactory}); a Chrome whose version cannot be read is not checked. The store is
+ * shared by every JVM of the user, shards included, and a file lock keeps them from resolving at
+ * the same time. Resolution times are recorded in the report, and a warm run also prints the
+ * cold time it saved.
+ */
+public class DriverBinaryStore {
+    private static final String PIN_FILE = "chromedriver.properties";
+    private static final String LOCK_FILE = ".lock";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.[\\d.]+");
+
+    private DriverBinaryStore() {
+    }
+
+    /** Refreshes the pinned driver: {@code DriverBinaryStore refresh}. */
+    public static void main(String[] args) {
+        if (args.length != 1 || !"refresh".equals(args[0])) {
+            System.err.println("Usage: DriverBinaryStore refresh");
+            System.exit(2);
+        }
+        Path driver = refresh();
+        System.out.println("Pinned " + driver + " in " + Paths.get(TestConfig.UI_DRIVER_STORE_DIR).toAbsolutePath());
+    }
+
+    /** The pinned driver, resolving and pinning one first if there is none; also set as {@code webdriver.chrome.driver}. */
+    public static Path resolve() {
+        return resolve(false);
+    }
+
+    /** Resolves the current driver through WebDriverManager and pins it in place of the old one. */
+    public static Path refresh() {
+        return resolve(true);
+    }
+
+    private static Path resolve(boolean refresh) {
+        Path dir = Paths.get(TestConfig.UI_DRIVER_STORE_DIR);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    Properties pin = refresh ? null : readPin(dir);
+                    boolean warm = pin != null;
+                    if (!warm) {
+                        pin = pinNew(dir);
+                    }
+                    Path driver = dir.resolve(pin.getProperty("file"));
+                    long elapsed = System.nanoTime() - start;
+                    System.setProperty("webdriver.chrome.driver", driver.toAbsolutePath().toString());
+                    TestReport.getInstance().recordTiming(TestReport.currentTestName(),
+                        "resolve chromedriver [" + (warm ? "warm" : "cold") + "]", elapsed);
+                    if (warm) {
+                        System.out.printf("chromedriver %s from the driver store in %.0fms (resolving it took %sms)%n",
+                            pin.getProperty("version"), elapsed / 1e6, pin.getProperty("resolveMillis"));
+                    }
+                    return driver;
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not use the driver store in " + dir.toAbsolutePath(), e);
+        }
+    }
+
+    // The pin, or null when there is none, its file no longer matches it or Chrome moved to another major version
+    private static Properties readPin(Path dir) throws IOException {
+        Path pinFile = dir.resolve(PIN_FILE);
+        if (!Files.isRegularFile(pinFile)) {
+            return null;
+        }
+        Properties pin = new Properties();
+        try (InputStream in = Files.newInputStream(pinFile)) {
+            pin.load(in);
+        }
+        String file = pin.getProperty("file");
+        Path driver = file != null ? dir.resolve(file) : null;
+        if (driver == null || !Files.isRegularFile(driver)) {
+            System.err.println("Pinned chromedriver is missing, resolving it again");
+            return null;
+        }
+        if (!sha256(driver).equals(pin.getProperty("sha256"))) {
+            System.err.println("Pinned chromedriver " + driver + " does not match its checksum, resolving it again");
+            return null;
+        }
+        String pinnedBrowser = pin.getProperty("browserVersion");
+        String browserPath = pin.getProperty("browserPath");
+        String browser = pinnedBrowser != null && browserPath != null ? browserVersion(browserPath) : null;
+        if (browser != null && !majorVersion(browser).equals(majorVersion(pinnedBrowser))) {
+            System.err.println("Chrome changed from " + pinnedBrowser + " to " + browser + ", resolving chromedriver again");
+            return null;
+        }
+        return pin;
+    }
+
+    private static Properties pinNew(Path dir) throws IOException {
+        long start = System.nanoTime();
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        String version = manager.getDownloadedDriverVersion();
+        // Versioned name, so a JVM still running the previous driver is not overwritten under it
+        String file = "chromedriver-" + version + (downloaded.getFileName().toString().endsWith(".exe") ? ".exe" : "");
+        Path driver = dir.resolve(file);
+        Path tmp = dir.resolve(file + ".tmp");
+        Files.copy(downloaded, tmp, StandardCopyOption.REPLACE_EXISTING);
+        tmp.toFile().setExecutable(true);
+        Files.move(tmp, driver, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Properties pin = new Properties();
+        pin.setProperty("version", version);
+        pin.setProperty("file", file);
+        pin.setProperty("sha256", sha256(driver));
+        manager.getBrowserPath().ifPresent(browserPath -> {
+            String browser = browserVersion(browserPath.toString());
+            if (browser != null) {
+                pin.setProperty("browserPath", browserPath.toString());
+                pin.setProperty("browserVersion", browser);
+            }
+        });
+        pin.setProperty("resolvedAt", Instant.now().toString());
+        pin.setProperty("resolveMillis", String.valueOf((System.nanoTime() - start) / 1_000_000));
+        Path pinTmp = dir.resolve(PIN_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(pinTmp)) {
+            pin.store(out, "chromedriver pinned by DriverBinaryStore; refresh with mvn test -Pdrivers");
+        }
+        Files.move(pinTmp, dir.resolve(PIN_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return pin;
+    }
+
+    // The version Chrome at browserPath reports, or null when it cannot be run or does not say
+    private static String browserVersion(String browserPath) {
+        try {
+            Process process = new ProcessBuilder(browserPath, "--version").redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return null;
+            }
+            Matcher version = VERSION.matcher(output);
+            return process.exitValue() == 0 && version.find() ? version.group() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static String majorVersion(String version) {
+        Matcher matcher = VERSION.matcher(version);
+        return matcher.find() ? matcher.group(1) : version;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
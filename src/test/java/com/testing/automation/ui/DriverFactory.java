@@ -0,0 +1,81 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestConfig;
+import java.time.Duration;
+import java.util.Map;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * Creates the Chrome sessions used by the UI tests. The driver binary comes from the
+ * {@link DriverBinaryStore}, checked once per JVM; when Chrome was upgraded past it, the store
+ * resolves a new one and the session is started again.
+ *
+ * In lean mode ({@code -Dui.lean}, on by default) sessions run headless, {@code driver.get}
+ * returns at DOMContentLoaded instead of waiting for every subresource, and a
+ * {@link RequestBlocker} keeps images, media, fonts and analytics from loading at all. With
+ * {@code -Dui.snapshot} set, Wikipedia's hosts resolve to the {@link SnapshotServer}.
+ */
+public class DriverFactory {
+    private static volatile boolean binariesReady;
+
+    public static void setupBinaries() {
+        if (!binariesReady) {
+            synchronized (DriverFactory.class) {
+                if (!binariesReady) {
+                    DriverBinaryStore.resolve();
+                    binariesReady = true;
+                }
+            }
+        }
+    }
+
+    public static WebDriver createChromeDriver() {
+        setupBinaries();
+        ChromeOptions options = new ChromeOptions();
+        if (TestConfig.UI_HEADLESS || TestConfig.UI_LEAN) {
+            options.addArguments("--headless=new");
+        }
+        if (TestConfig.UI_LEAN) {
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        }
+        options.addArguments("--window-size=1920,1080");
+        options.setPageLoadTimeout(Duration.ofSeconds(TestConfig.PAGE_LOAD_TIMEOUT));
+        // Console messages are read only for the artifacts of a failed test
+        options.setCapability("goog:loggingPrefs", Map.of("browser", "ALL"));
+        if (SnapshotServer.isEnabled()) {
+            options.addArguments("--host-resolver-rules=" + SnapshotServer.getInstance().hostResolverRules());
+        }
+        String binary = System.getProperty("webdriver.chrome.driver");
+        ChromeDriver driver;
+        try {
+            driver = new ChromeDriver(options);
+        } catch (SessionNotCreatedException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("only supports Chrome version")) {
+                throw e;
+            }
+            replaceBinary(binary);
+            driver = new ChromeDriver(options);
+        }
+        if (TestConfig.UI_LEAN) {
+            try {
+                RequestBlocker.attach(driver);
+            } catch (RuntimeException e) {
+                driver.quit();
+                throw e;
+            }
+        }
+        return driver;
+    }
+
+    // Pooled launches can all fail on the same old driver; only the first replaces it
+    private static synchronized void replaceBinary(String failed) {
+        if (failed == null || failed.equals(System.getProperty("webdriver.chrome.driver"))) {
+            System.err.println("Pinned chromedriver does not support the installed Chrome, refreshing it");
+            DriverBinaryStore.refresh();
+        }
+    }
+}
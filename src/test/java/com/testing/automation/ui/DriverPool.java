@@ -0,0 +1,213 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.ArtifactPipeline;
+import com.testing.automation.utils.TestConfig;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Pool of warm browser sessions shared by every UI test class in the JVM.
+ *
+ * The pool launches its browsers in the background as soon as it is first used. A test
+ * thread gets its own driver from {@link #current()}, leased on first call, and hands it
+ * back with {@link #release()}. A driver that fails its health check on lease or release,
+ * or that has served {@code ui.driverMaxUses} tests, is quit and replaced in the background.
+ * When a test fails, its browser's state is captured for the {@link ArtifactPipeline}
+ * before the driver goes back to the pool.
+ */
+public class DriverPool {
+    private static final long LEASE_TIMEOUT_SECONDS = 120;
+    private static final long POLL_MILLIS = 50;
+
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+    private final Set<PooledDriver> live = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<PooledDriver> leased = new ThreadLocal<>();
+    private final AtomicInteger pendingLaunches = new AtomicInteger();
+    private final ExecutorService launcher;
+    private final int maxUses;
+    private volatile boolean closed;
+
+    private static class Holder {
+        private static final DriverPool POOL = new DriverPool(TestConfig.UI_DRIVER_POOL_SIZE, TestConfig.UI_DRIVER_MAX_USES);
+    }
+
+    public static DriverPool getInstance() {
+        return Holder.POOL;
+    }
+
+    public DriverPool(int size, int maxUses) {
+        this.maxUses = maxUses;
+        launcher = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < size; i++) {
+            scheduleLaunch();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+        ArtifactPipeline.register(files -> {
+            PooledDriver pooled = leased.get();
+            if (pooled != null) {
+                BrowserArtifacts.capture(pooled.driver, files);
+            }
+        });
+    }
+
+    /**
+     * Blocks until at least one browser is warm. Fails fast when every launch has failed, so a
+     * missing browser fails class setup instead of every test waiting out the lease timeout.
+     */
+    public void awaitReady() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        while (idle.isEmpty()) {
+            checkLaunchable();
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No WebDriver became available within " + LEASE_TIMEOUT_SECONDS + "s");
+            }
+            sleep(POLL_MILLIS);
+        }
+    }
+
+    public boolean hasLease() {
+        return leased.get() != null;
+    }
+
+    /** The driver leased to the calling thread, leasing one if it has none yet. */
+    public WebDriver current() {
+        PooledDriver pooled = leased.get();
+        if (pooled == null) {
+            pooled = lease();
+            leased.set(pooled);
+        }
+        return pooled.driver;
+    }
+
+    /** Returns the calling thread's driver to the pool. */
+    public void release() {
+        PooledDriver pooled = leased.get();
+        if (pooled == null) {
+            return;
+        }
+        leased.remove();
+        pooled.uses++;
+        if (closed || pooled.uses >= maxUses || !isHealthy(pooled)) {
+            recycle(pooled);
+        } else {
+            idle.offer(pooled);
+        }
+    }
+
+    public void shutdown() {
+        closed = true;
+        launcher.shutdownNow();
+        for (PooledDriver pooled : live) {
+            quit(pooled);
+        }
+    }
+
+    private PooledDriver lease() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        while (true) {
+            PooledDriver pooled;
+            try {
+                pooled = idle.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a WebDriver", e);
+            }
+            if (pooled == null) {
+                checkLaunchable();
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No WebDriver became available within " + LEASE_TIMEOUT_SECONDS + "s");
+                }
+                continue;
+            }
+            if (isHealthy(pooled)) {
+                return pooled;
+            }
+            recycle(pooled);
+        }
+    }
+
+    private void checkLaunchable() {
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool is shut down");
+        }
+        if (pendingLaunches.get() == 0 && live.isEmpty()) {
+            throw new IllegalStateException("No WebDriver could be launched, see earlier errors");
+        }
+    }
+
+    private void scheduleLaunch() {
+        pendingLaunches.incrementAndGet();
+        launcher.execute(this::launch);
+    }
+
+    private void launch() {
+        try {
+            if (!closed) {
+                PooledDriver pooled = new PooledDriver(DriverFactory.createChromeDriver());
+                live.add(pooled);
+                idle.offer(pooled);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error launching pooled WebDriver: " + e.getMessage());
+        } finally {
+            pendingLaunches.decrementAndGet();
+        }
+    }
+
+    private void recycle(PooledDriver pooled) {
+        quit(pooled);
+        if (!closed) {
+            scheduleLaunch();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver", e);
+        }
+    }
+
+    private void quit(PooledDriver pooled) {
+        live.remove(pooled);
+        RequestBlocker.detach(pooled.driver);
+        LocatorCache.detach(pooled.driver);
+        try {
+            pooled.driver.quit();
+        } catch (WebDriverException e) {
+            // already gone
+        }
+    }
+
+    private static boolean isHealthy(PooledDriver pooled) {
+        try {
+            pooled.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static class PooledDriver {
+        private final WebDriver driver;
+        private int uses;
+
+        PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.FlightEvents;
+import com.testing.automation.utils.TestReport;
+import java.time.Duration;
+import java.util.List;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * Drop-in replacement for {@code WebDriverWait} that waits inside the page instead of polling.
+ *
+ * For CSS-addressable locators one async script checks the condition, then re-checks it on
+ * every DOM mutation and readyState change and calls back as soon as it holds, so a wait
+ * costs one WebDriver round-trip however long it takes. If the script cannot run (the page
+ * navigates mid-wait, or the locator is not CSS) the wait falls back to polling the matching
+ * {@link ExpectedConditions} with backoff from 25ms up to 500ms. Every wait's duration is
+ * recorded in {@link TestReport} under the running test, and each wait is also a JFR
+ * {@link FlightEvents.WaitEvent}. A timeout fails the test and is not reported to the site's
+ * circuit breaker: it usually means a wrong selector or a slow page, not a site that is down,
+ * which {@link PageTimings#open} detects from navigation failures.
+ */
+public class EventWait {
+    private static final long MIN_BACKOFF_MILLIS = 25;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+    // Stays under the 30s W3C default script timeout; longer waits take several slices
+    private static final long MAX_SCRIPT_MILLIS = 20_000;
+
+    private static final String SCRIPT =
+        "var css = arguments[0], mode = arguments[1], timeout = arguments[2];"
+        + "var done = arguments[arguments.length - 1];"
+        + "function check() {"
+        + "  if (mode === 'all') {"
+        + "    var all = document.querySelectorAll(css);"
+        + "    return all.length ? Array.prototype.slice.call(all) : null;"
+        + "  }"
+        + "  var el = document.querySelector(css);"
+        + "  if (!el) { return null; }"
+        + "  if (mode === 'clickable' && (el.disabled || el.getClientRects().length === 0"
+        + "      || getComputedStyle(el).visibility === 'hidden')) { return null; }"
+        + "  return el;"
+        + "}"
+        + "var found = check();"
+        + "if (found) { done(found); return; }"
+        + "var finished = false, observer, interval, timer;"
+        + "function finish(value) {"
+        + "  if (finished) { return; }"
+        + "  finished = true;"
+        + "  observer.disconnect();"
+        + "  document.removeEventListener('readystatechange', onChange);"
+        + "  clearInterval(interval);"
+        + "  clearTimeout(timer);"
+        + "  done(value);"
+        + "}"
+        + "function onChange() { var value = check(); if (value) { finish(value); } }"
+        + "observer = new MutationObserver(onChange);"
+        + "observer.observe(document.documentElement || document, { childList: true, subtree: true, attributes: true });"
+        + "document.addEventListener('readystatechange', onChange);"
+        // Catches changes that are not DOM mutations, such as a stylesheet finishing loading
+        + "interval = setInterval(onChange, 100);"
+        + "timer = setTimeout(function () { finish(null); }, timeout);";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    public EventWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public <T> T until(Condition<T> condition) {
+        FlightEvents.WaitEvent event = new FlightEvents.WaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return await(condition, start);
+        } catch (TimeoutException e) {
+            event.timedOut = true;
+            throw e;
+        } finally {
+            event.end();
+            TestReport.getInstance().recordTiming(TestReport.currentTestName(), "wait " + condition,
+                System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.test = TestReport.currentTestName();
+                event.condition = condition.toString();
+                event.commit();
+            }
+        }
+    }
+
+    private <T> T await(Condition<T> condition, long start) {
+        long deadline = start + timeout.toNanos();
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (condition.css != null && remainingMillis > 0) {
+                try {
+                    Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                        SCRIPT, condition.css, condition.mode, Math.min(remainingMillis, MAX_SCRIPT_MILLIS));
+                    if (result != null) {
+                        return condition.cast(result);
+                    }
+                    continue;
+                } catch (WebDriverException e) {
+                    // Page navigated or script was cut off, fall back to one poll and retry
+                }
+            }
+
+            T value = poll(condition);
+            if (value != null) {
+                return value;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition
+                    + " (tried for " + timeout.getSeconds() + " second(s))");
+            }
+            sleep(Math.min(backoff, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private <T> T poll(Condition<T> condition) {
+        try {
+            T value = condition.fallback.apply(driver);
+            return value instanceof Boolean && !((Boolean) value) ? null : value;
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+
+    // Condition factories, named after their ExpectedConditions counterparts
+
+    public static Condition<WebElement> presenceOfElementLocated(By locator) {
+        return new Condition<>("presence of " + locator, cssOf(locator), "present",
+            ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
+    public static Condition<WebElement> elementToBeClickable(By locator) {
+        return new Condition<>("clickable " + locator, cssOf(locator), "clickable",
+            ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    public static Condition<List<WebElement>> presenceOfAllElementsLocatedBy(By locator) {
+        return new Condition<>("presence of all " + locator, cssOf(locator), "all",
+            ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+    }
+
+    // CSS form of the locator, or null when only polling can evaluate it (XPath, link text)
+    private static String cssOf(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        if (!(parameters.value() instanceof String)) {
+            return null;
+        }
+        String value = (String) parameters.value();
+        switch (parameters.using()) {
+            case "css selector":
+            case "tag name":
+                return value;
+            case "id":
+                return attributeSelector("id", value);
+            case "name":
+                return attributeSelector("name", value);
+            default:
+                return null;
+        }
+    }
+
+    private static String attributeSelector(String attribute, String value) {
+        return "[" + attribute + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+    }
+
+    public static class Condition<T> {
+        private final String description;
+        private final String css;
+        private final String mode;
+        private final ExpectedCondition<T> fallback;
+
+        Condition(String description, String css, String mode, ExpectedCondition<T> fallback) {
+            this.description = description;
+            this.css = css;
+            this.mode = mode;
+            this.fallback = fallback;
+        }
+
+        @SuppressWarnings("unchecked")
+        T cast(Object result) {
+            return (T) result;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestReport;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Elements already located in a driver's current page, so repeated use of a locator costs no
+ * {@code findElement} round-trip.
+ *
+ * {@link PageTimings#open} clears the cache, since a new document makes every element stale.
+ * Staleness from anything else, such as a click that navigates or a script that re-renders
+ * part of the page, is detected when it matters: {@link #with} runs its action on the cached
+ * element and, if the element turns out to be stale, evicts it, locates it again and retries
+ * once. Hits, misses and stale evictions are counted in {@link TestReport}.
+ */
+public class LocatorCache {
+    private static final Map<WebDriver, LocatorCache> CACHES = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Map<By, WebElement> elements = new ConcurrentHashMap<>();
+
+    private LocatorCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static LocatorCache of(WebDriver driver) {
+        return CACHES.computeIfAbsent(driver, LocatorCache::new);
+    }
+
+    public static void detach(WebDriver driver) {
+        CACHES.remove(driver);
+    }
+
+    /** The element for {@code locator}, from the cache or located now. */
+    public WebElement find(By locator) {
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            TestReport.getInstance().recordLocatorLookup(true);
+            return cached;
+        }
+        TestReport.getInstance().recordLocatorLookup(false);
+        WebElement found = driver.findElement(locator);
+        elements.put(locator, found);
+        return found;
+    }
+
+    /** Applies {@code action} to the element for {@code locator}, relocating it once if it went stale. */
+    public <T> T with(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(find(locator));
+        } catch (StaleElementReferenceException e) {
+            TestReport.getInstance().recordLocatorStale();
+            elements.remove(locator);
+            return action.apply(find(locator));
+        }
+    }
+
+    /** Runs {@code action} on the element for {@code locator}, relocating it once if it went stale. */
+    public void run(By locator, Consumer<WebElement> action) {
+        with(locator, element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    public void put(By locator, WebElement element) {
+        elements.put(locator, element);
+    }
+
+    public void clear() {
+        elements.clear();
+    }
+}
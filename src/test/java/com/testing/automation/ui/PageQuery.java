@@ -0,0 +1,192 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestReport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Reads several parts of a page in one WebDriver round-trip.
+ *
+ * Each {@link #select} names a CSS selector and what to read from every match: attributes,
+ * text, visibility or the element itself. {@link #run()} evaluates all of them in a single
+ * script call and returns a {@link PageSnapshot}, where {@code findElements} followed by a
+ * {@code getAttribute} per element would cost one call per element. A selection without
+ * projections only counts its matches. Elements returned by the query are put in the
+ * driver's {@link LocatorCache}, so clicking one needs no further lookup.
+ *
+ * <pre>
+ * PageSnapshot page = PageQuery.on(driver)
+ *     .select("links", ".central-featured-lang", PageQuery.attribute("lang"), PageQuery.element())
+ *     .select("headings", "h2, h3")
+ *     .run();
+ * </pre>
+ */
+public class PageQuery {
+    // Visibility follows WebElement.isDisplayed closely enough for layout checks: rendered, not hidden
+    private static final String SCRIPT =
+        "var selections = arguments[0], result = {};"
+        + "function visible(el) {"
+        + "  if (el.getClientRects().length === 0) { return false; }"
+        + "  var style = getComputedStyle(el);"
+        + "  return style.visibility !== 'hidden' && style.display !== 'none' && style.opacity !== '0';"
+        + "}"
+        + "for (var i = 0; i < selections.length; i++) {"
+        + "  var s = selections[i], all = document.querySelectorAll(s.css), items = [];"
+        + "  if (s.attributes.length || s.text || s.visible || s.element) {"
+        + "    for (var j = 0; j < all.length; j++) {"
+        + "      var el = all[j], item = { attributes: {} };"
+        + "      for (var k = 0; k < s.attributes.length; k++) { item.attributes[s.attributes[k]] = el.getAttribute(s.attributes[k]); }"
+        + "      if (s.text) { item.text = (el.innerText || el.textContent || '').trim(); }"
+        + "      if (s.visible) { item.visible = visible(el); }"
+        + "      if (s.element) { item.element = el; }"
+        + "      items.push(item);"
+        + "    }"
+        + "  }"
+        + "  result[s.name] = { count: all.length, items: items };"
+        + "}"
+        + "return result;";
+
+    private final WebDriver driver;
+    private final Map<String, Map<String, Object>> selections = new LinkedHashMap<>();
+
+    private PageQuery(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static PageQuery on(WebDriver driver) {
+        return new PageQuery(driver);
+    }
+
+    /** Adds a selection named {@code name}; with no projections only its match count is read. */
+    public PageQuery select(String name, String css, Projection... projections) {
+        Map<String, Object> selection = new HashMap<>();
+        List<String> attributes = new ArrayList<>();
+        selection.put("name", name);
+        selection.put("css", css);
+        selection.put("attributes", attributes);
+        for (Projection projection : projections) {
+            if (projection.attribute != null) {
+                attributes.add(projection.attribute);
+            } else {
+                selection.put(projection.flag, true);
+            }
+        }
+        selections.put(name, selection);
+        return this;
+    }
+
+    public static Projection attribute(String name) {
+        return new Projection(null, name);
+    }
+
+    public static Projection text() {
+        return new Projection("text", null);
+    }
+
+    public static Projection visible() {
+        return new Projection("visible", null);
+    }
+
+    public static Projection element() {
+        return new Projection("element", null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public PageSnapshot run() {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeScript(SCRIPT, new ArrayList<>(selections.values()));
+        } finally {
+            TestReport.getInstance().recordTiming(TestReport.currentTestName(), "query " + selections.keySet(),
+                System.nanoTime() - start);
+        }
+        PageSnapshot snapshot = new PageSnapshot((Map<String, Map<String, Object>>) result);
+        LocatorCache cache = LocatorCache.of(driver);
+        for (Map<String, Object> selection : selections.values()) {
+            List<Element> matches = snapshot.get((String) selection.get("name"));
+            if (!matches.isEmpty() && matches.get(0).getElement() != null) {
+                cache.put(By.cssSelector((String) selection.get("css")), matches.get(0).getElement());
+            }
+        }
+        return snapshot;
+    }
+
+    /** What to read from each element of a selection. */
+    public static class Projection {
+        private final String flag;
+        private final String attribute;
+
+        private Projection(String flag, String attribute) {
+            this.flag = flag;
+            this.attribute = attribute;
+        }
+    }
+
+    /** Immutable result of a {@link PageQuery}, by selection name. */
+    public static class PageSnapshot {
+        private final Map<String, Long> counts = new HashMap<>();
+        private final Map<String, List<Element>> elements = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        PageSnapshot(Map<String, Map<String, Object>> result) {
+            for (Map.Entry<String, Map<String, Object>> selection : result.entrySet()) {
+                counts.put(selection.getKey(), ((Number) selection.getValue().get("count")).longValue());
+                List<Element> items = new ArrayList<>();
+                for (Object item : (List<Object>) selection.getValue().get("items")) {
+                    items.add(new Element((Map<String, Object>) item));
+                }
+                elements.put(selection.getKey(), items);
+            }
+        }
+
+        public long count(String name) {
+            Long count = counts.get(name);
+            if (count == null) {
+                throw new IllegalArgumentException("No selection named " + name);
+            }
+            return count;
+        }
+
+        /** Projected matches of a selection, in document order; empty if it had no projections. */
+        public List<Element> get(String name) {
+            count(name);
+            return elements.get(name);
+        }
+
+        /** First match of a selection, or null when nothing matched. */
+        public Element first(String name) {
+            List<Element> matches = get(name);
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+    }
+
+    /** One matched element; only the projections its selection asked for are set. */
+    public static class Element {
+        private final Map<String, String> attributes = new HashMap<>();
+        private final String text;
+        private final Boolean visible;
+        private final WebElement element;
+
+        @SuppressWarnings("unchecked")
+        Element(Map<String, Object> item) {
+            ((Map<String, Object>) item.get("attributes")).forEach((name, value) ->
+                attributes.put(name, value != null ? value.toString() : null));
+            text = (String) item.get("text");
+            visible = (Boolean) item.get("visible");
+            element = (WebElement) item.get("element");
+        }
+
+        public String getAttribute(String name) { return attributes.get(name); }
+        public String getText() { return text; }
+        public boolean isVisible() { return Boolean.TRUE.equals(visible); }
+        public WebElement getElement() { return element; }
+    }
+}
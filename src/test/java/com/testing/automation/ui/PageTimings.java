@@ -0,0 +1,167 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.CircuitBreaker;
+import com.testing.automation.utils.FlightEvents;
+import com.testing.automation.utils.TestReport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.Properties;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Browser-side timings for one page load, read from the Navigation and Resource Timing APIs
+ * in a single script call right after {@code driver.get} returns.
+ *
+ * {@link #open(WebDriver, String)} is the instrumented replacement for {@code driver.get}: it
+ * records TTFB, DOMContentLoaded, load and the wall-clock time the test waited in
+ * {@link TestReport} under the running test, and fails the test if the page exceeds its load
+ * budget from {@code page-budgets.properties}. Navigation goes through the site's
+ * {@link CircuitBreaker}, so once a site keeps failing, tests that open it are skipped. Each
+ * navigation is also a JFR {@link FlightEvents.NavigationEvent}.
+ *
+ * With the eager page load strategy of lean mode the load event usually has not fired when
+ * {@code driver.get} returns; the page then counts as ready at DOMContentLoaded, which is what
+ * the budget is checked against, and the number of requests its {@link RequestBlocker} kept
+ * from loading is reported as savings.
+ */
+public class PageTimings {
+    private static final String BUDGETS_FILE = "/page-budgets.properties";
+    private static final Properties BUDGETS = loadBudgets();
+
+    // Times are relative to navigation start, in ms
+    private static final String SCRIPT =
+        "var nav = performance.getEntriesByType('navigation')[0];"
+        + "var resources = performance.getEntriesByType('resource');"
+        + "var bytes = 0;"
+        + "for (var i = 0; i < resources.length; i++) { bytes += resources[i].transferSize || 0; }"
+        + "if (!nav) { return null; }"
+        + "return { ttfb: nav.responseStart, domContentLoaded: nav.domContentLoadedEventEnd,"
+        + " load: nav.loadEventEnd || nav.loadEventStart || nav.duration,"
+        + " documentBytes: nav.transferSize || 0, resources: resources.length, resourceBytes: bytes };";
+
+    private final String url;
+    private final double ttfbMillis;
+    private final double domContentLoadedMillis;
+    private final double loadMillis;
+    private final long resourceCount;
+    private final long transferBytes;
+    private final long waitNanos;
+
+    private PageTimings(String url, Map<String, Object> entry, long waitNanos) {
+        this.url = url;
+        this.waitNanos = waitNanos;
+        if (entry == null) {
+            ttfbMillis = domContentLoadedMillis = loadMillis = 0;
+            resourceCount = transferBytes = 0;
+        } else {
+            ttfbMillis = number(entry, "ttfb");
+            domContentLoadedMillis = number(entry, "domContentLoaded");
+            loadMillis = number(entry, "load");
+            resourceCount = (long) number(entry, "resources");
+            transferBytes = (long) (number(entry, "documentBytes") + number(entry, "resourceBytes"));
+        }
+    }
+
+    /** Navigates to {@code url}, records its timings against the running test and checks its budget. */
+    public static PageTimings open(WebDriver driver, String url) {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(url);
+        breaker.checkAvailable();
+        LocatorCache.of(driver).clear();
+        FlightEvents.NavigationEvent event = new FlightEvents.NavigationEvent();
+        event.test = TestReport.currentTestName();
+        event.url = url;
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            driver.get(url);
+        } catch (WebDriverException e) {
+            breaker.recordFailure(e);
+            event.commit();
+            throw e;
+        }
+        event.end();
+        breaker.recordSuccess(System.nanoTime() - start);
+        PageTimings timings = capture(driver, url, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.ttfb = (long) timings.ttfbMillis;
+            event.domContentLoaded = (long) timings.domContentLoadedMillis;
+            event.resources = timings.resourceCount;
+            event.bytes = timings.transferBytes;
+            event.commit();
+        }
+        timings.record(TestReport.getInstance(), TestReport.currentTestName());
+        RequestBlocker blocker = RequestBlocker.of(driver);
+        if (blocker != null) {
+            blocker.recordSavings(TestReport.getInstance(), TestReport.currentTestName());
+        }
+        timings.checkBudget();
+        return timings;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static PageTimings capture(WebDriver driver, String url, long waitNanos) {
+        Object entry = ((JavascriptExecutor) driver).executeScript(SCRIPT);
+        return new PageTimings(url, entry instanceof Map ? (Map<String, Object>) entry : null, waitNanos);
+    }
+
+    public void record(TestReport report, String testName) {
+        String page = "GET " + url;
+        report.recordTiming(testName, page, waitNanos);
+        if (domContentLoadedMillis > 0) {
+            report.recordTiming(testName, page + " [ttfb]", toNanos(ttfbMillis));
+            report.recordTiming(testName, page + " [domContentLoaded]", toNanos(domContentLoadedMillis));
+        }
+        if (loadMillis > 0) {
+            report.recordTiming(testName, page + " [load]", toNanos(loadMillis));
+        }
+    }
+
+    public void checkBudget() {
+        String budget = BUDGETS.getProperty(URI.create(url).getPath());
+        if (budget != null && getReadyMillis() > Long.parseLong(budget.trim())) {
+            throw new AssertionError(String.format("Page %s loaded in %.0fms, over its %sms budget (%s)",
+                url, getReadyMillis(), budget.trim(), this));
+        }
+    }
+
+    public String getUrl() { return url; }
+    public double getTtfbMillis() { return ttfbMillis; }
+    public double getDomContentLoadedMillis() { return domContentLoadedMillis; }
+    public double getLoadMillis() { return loadMillis; }
+    /** End of the load event, or DOMContentLoaded when the load event has not finished yet. */
+    public double getReadyMillis() { return loadMillis > 0 ? loadMillis : domContentLoadedMillis; }
+    public long getResourceCount() { return resourceCount; }
+    public long getTransferBytes() { return transferBytes; }
+    public double getWaitMillis() { return waitNanos / 1e6; }
+
+    @Override
+    public String toString() {
+        return String.format("ttfb=%.0fms domContentLoaded=%.0fms load=%.0fms wait=%.0fms resources=%d bytes=%d",
+            ttfbMillis, domContentLoadedMillis, loadMillis, getWaitMillis(), resourceCount, transferBytes);
+    }
+
+    private static double number(Map<String, Object> entry, String key) {
+        Object value = entry.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static long toNanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    private static Properties loadBudgets() {
+        Properties budgets = new Properties();
+        try (InputStream in = PageTimings.class.getResourceAsStream(BUDGETS_FILE)) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading page budgets: " + e.getMessage());
+        }
+        return budgets;
+    }
+}
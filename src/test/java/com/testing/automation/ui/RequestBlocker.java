@@ -0,0 +1,98 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Blocks requests the UI assertions do not need, through the DevTools Fetch domain of a
+ * lean-mode browser (see {@link DriverFactory}).
+ *
+ * Requests of the resource types in {@link TestConfig#UI_BLOCKED_RESOURCE_TYPES} and to URLs
+ * matching {@link TestConfig#UI_BLOCKED_URL_PATTERNS} are failed before they leave the browser.
+ * Each blocked request is only counted, with no network call of its own, and
+ * {@link #recordSavings} adds the count to the report under a test.
+ */
+public class RequestBlocker {
+    private static final Map<WebDriver, RequestBlocker> BLOCKERS = new ConcurrentHashMap<>();
+
+    private final DevTools devTools;
+    private final LongAdder blocked = new LongAdder();
+
+    private RequestBlocker(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /** Starts blocking in {@code driver}'s current tab. */
+    public static RequestBlocker attach(WebDriver driver) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        RequestBlocker blocker = new RequestBlocker(devTools);
+        devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE)),
+            blocker::onRequestPaused);
+        devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns())));
+        BLOCKERS.put(driver, blocker);
+        return blocker;
+    }
+
+    /** The blocker of {@code driver}, or null when it runs without one. */
+    public static RequestBlocker of(WebDriver driver) {
+        return BLOCKERS.get(driver);
+    }
+
+    public static void detach(WebDriver driver) {
+        BLOCKERS.remove(driver);
+    }
+
+    /** Adds the requests blocked since the last call to the report. */
+    public void recordSavings(TestReport report, String testName) {
+        long requests = blocked.sumThenReset();
+        if (requests > 0) {
+            report.recordSavings(testName, requests);
+        }
+    }
+
+    private void onRequestPaused(Map<String, Object> event) {
+        blocked.increment();
+        Map<String, Object> fail = new HashMap<>();
+        fail.put("requestId", event.get("requestId"));
+        fail.put("errorReason", "BlockedByClient");
+        try {
+            devTools.send(new Command<Void>("Fetch.failRequest", fail));
+        } catch (RuntimeException e) {
+            // The page navigated away and the request is gone
+        }
+    }
+
+    private static List<Map<String, Object>> patterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : split(TestConfig.UI_BLOCKED_RESOURCE_TYPES)) {
+            patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+        }
+        for (String url : split(TestConfig.UI_BLOCKED_URL_PATTERNS)) {
+            patterns.add(Map.of("urlPattern", url, "requestStage", "Request"));
+        }
+        return patterns;
+    }
+
+    private static List<String> split(String list) {
+        List<String> values = new ArrayList<>();
+        for (String value : list.split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,165 @@
+package com.testing.automation.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Recorded HTTP responses for the {@link SnapshotServer}, in a directory of two files: the
+ * bodies, each gzip-compressed, back to back in {@code bodies.bin}, and {@code index.json} with
+ * every response's status, headers and byte range in it.
+ *
+ * Bodies stay compressed on disk and on the wire, so a response is served with one
+ * {@link FileChannel#transferTo} from the archive straight to the socket, without passing
+ * through the heap.
+ */
+class SnapshotArchive implements Closeable {
+    static final String INDEX_FILE = "index.json";
+    private static final String BODIES_FILE = "bodies.bin";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final Path dir;
+    private final FileChannel bodies;
+    private final Map<String, Entry> entries;
+    private final boolean writable;
+
+    private SnapshotArchive(Path dir, FileChannel bodies, Map<String, Entry> entries, boolean writable) {
+        this.dir = dir;
+        this.bodies = bodies;
+        this.entries = entries;
+        this.writable = writable;
+    }
+
+    /** Opens a recorded archive for reading. */
+    static SnapshotArchive open(Path dir) throws IOException {
+        Map<String, Entry> entries;
+        try (Reader reader = Files.newBufferedReader(dir.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            entries = GSON.fromJson(reader, new TypeToken<Map<String, Entry>>() { }.getType());
+        }
+        FileChannel bodies = FileChannel.open(dir.resolve(BODIES_FILE), StandardOpenOption.READ);
+        return new SnapshotArchive(dir, bodies, new ConcurrentHashMap<>(entries), false);
+    }
+
+    /**
+     * Starts an empty archive in {@code dir}, replacing the one there; the index is written on
+     * {@link #close()}, and the old one is removed now, so a recording that never closes leaves no snapshot.
+     */
+    static SnapshotArchive create(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.deleteIfExists(dir.resolve(INDEX_FILE));
+        FileChannel bodies = FileChannel.open(dir.resolve(BODIES_FILE), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new SnapshotArchive(dir, bodies, new ConcurrentHashMap<>(), true);
+    }
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** Compresses and appends a response; a key recorded twice keeps the later response. */
+    Entry put(String key, int status, Map<String, String> headers, byte[] body) throws IOException {
+        byte[] compressed = body.length > 0 ? gzip(body) : body;
+        Entry entry;
+        synchronized (this) {
+            long offset = bodies.size();
+            ByteBuffer buffer = ByteBuffer.wrap(compressed);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += bodies.write(buffer, position);
+            }
+            entry = new Entry(status, headers, offset, compressed.length);
+        }
+        entries.put(key, entry);
+        return entry;
+    }
+
+    /** Writes the gzip-compressed body of {@code entry} to {@code target}. */
+    void transferTo(Entry entry, WritableByteChannel target) throws IOException {
+        long position = entry.offset;
+        long end = entry.offset + entry.length;
+        while (position < end) {
+            position += bodies.transferTo(position, end - position, target);
+        }
+    }
+
+    /** The body of {@code entry}, decompressed, for clients that do not accept gzip. */
+    byte[] read(Entry entry) throws IOException {
+        if (entry.length == 0) {
+            return new byte[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) entry.length);
+        while (buffer.hasRemaining()) {
+            if (bodies.read(buffer, entry.offset + buffer.position()) < 0) {
+                throw new IOException("Snapshot body truncated at offset " + entry.offset);
+            }
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+            return in.readAllBytes();
+        }
+    }
+
+    // The index is written beside the old one and moved over it, so a crash never leaves half an index
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writable) {
+                bodies.force(false);
+                Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+                Files.write(tmp, GSON.toJson(new TreeMap<>(entries)).getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            bodies.close();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /** One recorded response; {@code length} is the compressed size, 0 for an empty body. */
+    static class Entry {
+        private final int status;
+        private final Map<String, String> headers;
+        private final long offset;
+        private final long length;
+
+        Entry(int status, Map<String, String> headers, long offset, long length) {
+            this.status = status;
+            this.headers = headers;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        int getStatus() { return status; }
+        Map<String, String> getHeaders() { return headers; }
+        long getLength() { return length; }
+    }
+}
@@ -0,0 +1,403 @@
+package com.testing.automation.ui;
+
+import com.testing.automation.utils.TestConfig;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for Wikipedia, so UI tests run offline, at loopback speed and against the same
+ * pages every time. Selected with {@code -Dui.snapshot=record} or {@code -Dui.snapshot=replay}.
+ *
+ * Pages are served over plain HTTP under {@code <host>.localhost}, e.g.
+ * {@code http://en.wikipedia.org.localhost/wiki/Software_testing}: {@link #url} maps a test's URL
+ * there and {@link DriverFactory} points those names at this server with Chrome's host resolver
+ * rules. The ".localhost" suffix keeps Chrome's HSTS preload for wikipedia.org from upgrading the
+ * requests to HTTPS, and URL paths, and with them page budgets, stay as they are.
+ *
+ * In record mode each request is fetched from the real site, links to the
+ * {@link TestConfig#UI_SNAPSHOT_HOSTS} in text responses and redirects are rewritten to their
+ * local names, and the response goes into a new {@link SnapshotArchive} in
+ * {@link TestConfig#UI_SNAPSHOT_DIR}. In replay mode responses come only from the archive; a
+ * request that was not recorded gets a 404 and is counted in the summary printed at exit. URLs
+ * that page scripts assemble at run time are not rewritten and still go to the real site.
+ */
+public class SnapshotServer {
+    private static final String LOCAL_SUFFIX = ".localhost";
+    private static final int MAX_HEAD_BYTES = 16 * 1024;
+    private static final byte[] HEAD_END = {'\r', '\n', '\r', '\n'};
+    // Response headers worth replaying; cookies and per-request headers are left out
+    private static final List<String> KEPT_HEADERS = List.of("Content-Type", "Cache-Control", "Location");
+    private static final List<String> FORWARDED_HEADERS = List.of("User-Agent", "Accept", "Accept-Language");
+    private static final Pattern HOST_LINK = hostLinkPattern();
+
+    private final boolean recording;
+    private final SnapshotArchive archive;
+    private final ServerSocketChannel server;
+    private final ExecutorService executor;
+    private final HttpClient upstream;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+
+    private static class Holder {
+        private static final SnapshotServer SERVER = start();
+    }
+
+    public static boolean isEnabled() {
+        return "record".equals(TestConfig.UI_SNAPSHOT_MODE) || "replay".equals(TestConfig.UI_SNAPSHOT_MODE);
+    }
+
+    /** The JVM's snapshot server, started on first use. */
+    public static SnapshotServer getInstance() {
+        return Holder.SERVER;
+    }
+
+    /** {@code url} on the snapshot server when one is enabled and serves its host, otherwise {@code url}. */
+    public static String url(String url) {
+        if (!isEnabled()) {
+            return url;
+        }
+        URI uri = URI.create(url);
+        String host = uri.getHost();
+        if (host == null || !isSnapshotHost(host)) {
+            return url;
+        }
+        return "http://" + host + LOCAL_SUFFIX + (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+            + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    }
+
+    private SnapshotServer(boolean recording, SnapshotArchive archive) throws IOException {
+        this.recording = recording;
+        this.archive = archive;
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        upstream = recording
+            ? HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(TestConfig.PAGE_LOAD_TIMEOUT))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build()
+            : null;
+        executor.execute(this::accept);
+    }
+
+    private static SnapshotServer start() {
+        boolean recording = "record".equals(TestConfig.UI_SNAPSHOT_MODE);
+        Path dir = Paths.get(TestConfig.UI_SNAPSHOT_DIR);
+        try {
+            if (!recording && !Files.isRegularFile(dir.resolve(SnapshotArchive.INDEX_FILE))) {
+                throw new IllegalStateException("No Wikipedia snapshot in " + dir.toAbsolutePath()
+                    + ", record one with -Dui.snapshot=record");
+            }
+            SnapshotServer server = new SnapshotServer(recording, recording ? SnapshotArchive.create(dir) : SnapshotArchive.open(dir));
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "snapshot-server-shutdown"));
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the snapshot server on " + dir.toAbsolutePath(), e);
+        }
+    }
+
+    public int port() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Snapshot server is not bound", e);
+        }
+    }
+
+    /** Chrome {@code --host-resolver-rules} sending every {@code *.localhost} name to this server. */
+    public String hostResolverRules() {
+        return "MAP *" + LOCAL_SUFFIX + " 127.0.0.1:" + port();
+    }
+
+    /** Stops serving; a recording's index is written now, so a run that did not stop cleanly leaves no snapshot. */
+    public synchronized void stop() {
+        if (!server.isOpen()) {
+            return;
+        }
+        try {
+            server.close();
+            executor.shutdownNow();
+            archive.close();
+        } catch (IOException e) {
+            System.err.println("Error closing Wikipedia snapshot: " + e.getMessage());
+        }
+        System.out.printf("Wikipedia snapshot %s: %d requests, %d not in the snapshot, %d responses in %s%n",
+            recording ? "recorded" : "replayed", served.sum(), missed.sum(), archive.size(), TestConfig.UI_SNAPSHOT_DIR);
+    }
+
+    private void accept() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                // Head and body go out in separate writes on the gzip path, which Nagle would hold back
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                executor.execute(() -> serve(channel));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error accepting snapshot connection: " + e.getMessage());
+            }
+        }
+    }
+
+    // One connection, kept alive for as many requests as the browser sends on it
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            ByteBuffer in = ByteBuffer.allocate(MAX_HEAD_BYTES);
+            Request request;
+            while ((request = Request.read(channel, in)) != null) {
+                respond(channel, request);
+                if (!request.keepAlive) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Browser closed the connection
+        }
+    }
+
+    private void respond(SocketChannel channel, Request request) throws IOException {
+        served.increment();
+        if (!"GET".equals(request.method) && !"HEAD".equals(request.method)) {
+            request.keepAlive = false;
+            writeText(channel, request, 405, "Only GET and HEAD are recorded");
+            return;
+        }
+        String host = request.header("Host").replaceFirst(":\\d+$", "");
+        if (!host.endsWith(LOCAL_SUFFIX)) {
+            writeText(channel, request, 404, "Not a snapshot host: " + host);
+            return;
+        }
+        host = host.substring(0, host.length() - LOCAL_SUFFIX.length());
+        String key = host + request.target;
+        SnapshotArchive.Entry entry = archive.get(key);
+        if (entry == null && recording) {
+            entry = record(request, key);
+        }
+        if (entry == null) {
+            missed.increment();
+            writeText(channel, request, 404, "Not in the snapshot: " + key);
+            return;
+        }
+
+        boolean gzip = entry.getLength() > 0 && request.header("Accept-Encoding").contains("gzip");
+        byte[] plain = entry.getLength() > 0 && !gzip ? archive.read(entry) : null;
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1 ").append(entry.getStatus()).append(' ').append(reason(entry.getStatus())).append("\r\n");
+        entry.getHeaders().forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        if (gzip) {
+            head.append("Content-Encoding: gzip\r\n");
+        }
+        head.append("Content-Length: ").append(gzip ? entry.getLength() : plain != null ? plain.length : 0).append("\r\n");
+        head.append("Connection: ").append(request.keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        if ("HEAD".equals(request.method) || plain == null) {
+            write(channel, headBytes);
+        } else {
+            write(channel, headBytes, plain);
+        }
+        if (gzip && !"HEAD".equals(request.method)) {
+            archive.transferTo(entry, channel);
+        }
+    }
+
+    private SnapshotArchive.Entry record(Request request, String key) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("https://" + key))
+            .timeout(Duration.ofSeconds(TestConfig.PAGE_LOAD_TIMEOUT))
+            .GET();
+        for (String name : FORWARDED_HEADERS) {
+            if (!request.header(name).isEmpty()) {
+                builder.header(name, request.header(name));
+            }
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = upstream.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while recording " + key, e);
+        } catch (IOException e) {
+            System.err.println("Error recording " + key + ": " + e.getMessage());
+            return null;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : KEPT_HEADERS) {
+            response.headers().firstValue(name).ifPresent(value -> headers.put(name, "Location".equals(name) ? rewrite(value) : value));
+        }
+        byte[] body = response.body();
+        if (isText(headers.get("Content-Type"))) {
+            body = rewrite(new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+        }
+        return archive.put(key, response.statusCode(), headers, body);
+    }
+
+    /** {@code text} with links to the snapshot hosts pointed at their local names. */
+    static String rewrite(String text) {
+        Matcher matcher = HOST_LINK.matcher(text);
+        StringBuilder out = new StringBuilder(text.length() + 256);
+        while (matcher.find()) {
+            String replacement = (matcher.group(1) != null ? "http:" : "") + matcher.group(2) + matcher.group(3) + LOCAL_SUFFIX;
+            matcher.appendReplacement(out, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static boolean isSnapshotHost(String host) {
+        for (String domain : hosts()) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> hosts() {
+        return Arrays.stream(TestConfig.UI_SNAPSHOT_HOSTS.split(","))
+            .map(String::trim)
+            .filter(host -> !host.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    // "https://en.wikipedia.org", "//upload.wikimedia.org" and JSON-escaped "https:\/\/...", but not a local name
+    private static Pattern hostLinkPattern() {
+        String domains = hosts().stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        return Pattern.compile("(https?:)?(//|\\\\/\\\\/)((?:[A-Za-z0-9-]+\\.)*(?:" + domains + "))(?![\\w-]|\\.localhost)");
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json") || type.contains("xml");
+    }
+
+    private static void writeText(SocketChannel channel, Request request, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\n"
+            + "Content-Type: text/plain; charset=utf-8\r\n"
+            + "Content-Length: " + body.length + "\r\n"
+            + "Connection: " + (request.keepAlive ? "keep-alive" : "close") + "\r\n\r\n";
+        if ("HEAD".equals(request.method)) {
+            write(channel, head.getBytes(StandardCharsets.ISO_8859_1));
+        } else {
+            write(channel, head.getBytes(StandardCharsets.ISO_8859_1), body);
+        }
+    }
+
+    // One gathering write, so a response's head and body leave in the same segments
+    private static void write(SocketChannel channel, byte[]... parts) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[parts.length];
+        long remaining = 0;
+        for (int i = 0; i < parts.length; i++) {
+            buffers[i] = ByteBuffer.wrap(parts[i]);
+            remaining += parts[i].length;
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 204: return "No Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 303: return "See Other";
+            case 304: return "Not Modified";
+            case 307: return "Temporary Redirect";
+            case 308: return "Permanent Redirect";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            default: return "Status " + status;
+        }
+    }
+
+    /** Request line and headers of one HTTP/1.1 request; bodies are not read. */
+    private static class Request {
+        private String method;
+        private String target;
+        private final Map<String, String> headers = new HashMap<>();
+        private boolean keepAlive;
+
+        String header(String name) {
+            return headers.getOrDefault(name.toLowerCase(Locale.ROOT), "");
+        }
+
+        // Reads up to the blank line after the headers; bytes after it stay in the buffer for the next request
+        static Request read(SocketChannel channel, ByteBuffer in) throws IOException {
+            int end;
+            while ((end = headEnd(in)) < 0) {
+                if (!in.hasRemaining()) {
+                    throw new IOException("Request head over " + MAX_HEAD_BYTES + " bytes");
+                }
+                if (channel.read(in) < 0) {
+                    return null;
+                }
+            }
+            String[] lines = new String(in.array(), 0, end, StandardCharsets.ISO_8859_1).split("\r\n");
+            in.flip();
+            in.position(end + HEAD_END.length);
+            in.compact();
+
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3) {
+                throw new IOException("Malformed request line: " + lines[0]);
+            }
+            Request request = new Request();
+            request.method = requestLine[0];
+            request.target = requestLine[1];
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    request.headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT), lines[i].substring(colon + 1).trim());
+                }
+            }
+            request.keepAlive = "HTTP/1.1".equals(requestLine[2]) && !"close".equalsIgnoreCase(request.header("Connection"));
+            return request;
+        }
+
+        private static int headEnd(ByteBuffer in) {
+            byte[] bytes = in.array();
+            for (int i = 0; i + HEAD_END.length <= in.position(); i++) {
+                if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,89 +1,96 @@
 package com.testing.automation.ui;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.testing.automation.utils.TestConfig;
+import com.testing.automation.utils.TestReport;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 import java.time.Duration;
 import java.util.List;
 
 public class WikipediaUITest {
-    private WebDriver driver;
-    private WebDriverWait wait;
     private static final String BASE_URL = "https://www.wikipedia.org";
     private static final String EN_WIKI = "https://en.wikipedia.org";
+    private static final Dimension DESKTOP_SIZE = new Dimension(1920, 1080);
 
     @BeforeClass
     public void setUp() {
-        WebDriverManager.chromedriver().setup();
-        driver = new ChromeDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        driver.manage().window().maximize();
+        // Pooled browsers stay warm across test classes, so only the first class pays for startup
+        DriverPool.getInstance().awaitReady();
+    }
+
+    // Each test thread works on the browser leased to it
+    private WebDriver driver() {
+        return DriverPool.getInstance().current();
+    }
+
+    // Explicit waits instead of a driver-wide implicit wait, which would stall every lookup expected to find nothing
+    private EventWait waitFor() {
+        return new EventWait(driver(), Duration.ofSeconds(TestConfig.IMPLICIT_WAIT));
     }
 
     @Test(priority = 1)
     public void testSearchFunctionality() {
-        driver.get(BASE_URL);
+        open(BASE_URL);
         
-        WebElement searchInput = wait.until(ExpectedConditions.elementToBeClickable(By.id("searchInput")));
+        WebElement searchInput = waitFor().until(EventWait.elementToBeClickable(By.id("searchInput")));
         searchInput.sendKeys("Software testing");
         
-        WebElement searchButton = wait.until(ExpectedConditions.elementToBeClickable(
+        WebElement searchButton = waitFor().until(EventWait.elementToBeClickable(
             By.cssSelector("button[type='submit']")));
         searchButton.click();
         
-        WebElement firstHeading = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("firstHeading")));
+        WebElement firstHeading = waitFor().until(EventWait.presenceOfElementLocated(By.id("firstHeading")));
         Assert.assertTrue(firstHeading.getText().contains("Software testing"), 
             "Search results page should contain 'Software testing'");
     }
 
     @Test(priority = 2)
     public void testLanguageSelection() {
-        driver.get(BASE_URL);
+        open(BASE_URL);
         
-        WebElement languageSelector = wait.until(ExpectedConditions.elementToBeClickable(
+        WebElement languageSelector = waitFor().until(EventWait.elementToBeClickable(
             By.cssSelector(".lang-list-button")));
         languageSelector.click();
         
-        WebElement spanishLink = wait.until(ExpectedConditions.elementToBeClickable(
+        WebElement spanishLink = waitFor().until(EventWait.elementToBeClickable(
             By.cssSelector("a[lang='es']")));
         String spanishUrl = spanishLink.getAttribute("href");
         spanishLink.click();
         
-        Assert.assertTrue(driver.getCurrentUrl().contains("es.wikipedia.org"), 
+        Assert.assertTrue(driver().getCurrentUrl().contains("es.wikipedia.org"), 
             "URL should contain Spanish Wikipedia domain");
     }
 
     @Test(priority = 3)
     public void testNavigationLinks() {
-        driver.get(BASE_URL);
+        open(BASE_URL);
         
-        List<WebElement> mainLinks = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
-            By.cssSelector(".central-featured-lang")));
+        waitFor().until(EventWait.presenceOfElementLocated(By.cssSelector(".central-featured-lang")));
+        // All links and the English one in one round-trip; the query leaves the English link in the LocatorCache
+        By englishLink = By.cssSelector(".central-featured-lang[lang='en']");
+        PageQuery.PageSnapshot page = PageQuery.on(driver())
+            .select("links", ".central-featured-lang")
+            .select("english", ".central-featured-lang[lang='en']", PageQuery.element())
+            .run();
         
-        Assert.assertTrue(mainLinks.size() > 0, "Main navigation links should be present");
-        
-        WebElement englishLink = mainLinks.stream()
-            .filter(link -> link.getAttribute("lang").equals("en"))
-            .findFirst()
-            .orElseThrow(() -> new AssertionError("English link not found"));
+        Assert.assertTrue(page.count("links") > 0, "Main navigation links should be present");
+        Assert.assertTrue(page.count("english") > 0, "English link not found");
             
-        englishLink.click();
+        LocatorCache.of(driver()).run(englishLink, WebElement::click);
         
-        Assert.assertTrue(driver.getCurrentUrl().contains("en.wikipedia.org"), 
+        Assert.assertTrue(driver().getCurrentUrl().contains("en.wikipedia.org"), 
             "Should navigate to English Wikipedia");
     }
 
     @Test(priority = 4)
     public void testRandomArticle() {
-        driver.get("https://en.wikipedia.org/wiki/Special:Random");
+        open("https://en.wikipedia.org/wiki/Special:Random");
         
-        WebElement articleContent = wait.until(ExpectedConditions.presenceOfElementLocated(
+        WebElement articleContent = waitFor().until(EventWait.presenceOfElementLocated(
             By.cssSelector(".mw-parser-output")));
-        WebElement firstHeading = wait.until(ExpectedConditions.presenceOfElementLocated(
+        WebElement firstHeading = waitFor().until(EventWait.presenceOfElementLocated(
             By.id("firstHeading")));
             
         Assert.assertTrue(articleContent.isDisplayed(), 
@@ -94,12 +101,12 @@ public class WikipediaUITest {
 
     @Test(priority = 5)
     public void testSearchSuggestions() {
-        driver.get(BASE_URL);
+        open(BASE_URL);
         
-        WebElement searchInput = wait.until(ExpectedConditions.elementToBeClickable(By.id("searchInput")));
+        WebElement searchInput = waitFor().until(EventWait.elementToBeClickable(By.id("searchInput")));
         searchInput.sendKeys("Albert Ein");
         
-        List<WebElement> suggestions = wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
+        List<WebElement> suggestions = waitFor().until(EventWait.presenceOfAllElementsLocatedBy(
             By.cssSelector(".suggestion-link")));
         
         Assert.assertTrue(suggestions.size() > 0, 
@@ -112,64 +119,70 @@ public class WikipediaUITest {
 
     @Test(priority = 6)
     public void testArticleNavigation() {
-        driver.get(EN_WIKI + "/wiki/Software_testing");
+        open(EN_WIKI + "/wiki/Software_testing");
+        
+        waitFor().until(EventWait.presenceOfElementLocated(By.cssSelector("#mw-content-text")));
+        PageQuery.PageSnapshot page = PageQuery.on(driver())
+            .select("content", "#mw-content-text", PageQuery.visible())
+            .select("headings", "#mw-content-text h2, #mw-content-text h3")
+            .select("references", ".reference-text, .reference, .reflist")
+            .run();
         
         // Test content area
-        WebElement contentDiv = wait.until(ExpectedConditions.presenceOfElementLocated(
-            By.cssSelector("#mw-content-text")));
-        Assert.assertTrue(contentDiv.isDisplayed(), "Content div should be visible");
+        Assert.assertTrue(page.first("content").isVisible(), "Content div should be visible");
         
         // Test any headings (more reliable than specific sections)
-        List<WebElement> headings = driver.findElements(By.cssSelector("#mw-content-text h2, #mw-content-text h3"));
-        Assert.assertTrue(headings.size() > 0, "Article should have headings");
+        Assert.assertTrue(page.count("headings") > 0, "Article should have headings");
         
         // Test reference links (if any exist)
-        List<WebElement> references = driver.findElements(By.cssSelector(".reference-text, .reference, .reflist"));
-        Assert.assertTrue(references.size() >= 0, "Article may have references");
+        Assert.assertTrue(page.count("references") >= 0, "Article may have references");
     }
 
     @Test(priority = 7)
     public void testMobileView() {
         // Set mobile viewport
         Dimension mobileSize = new Dimension(375, 812);
-        driver.manage().window().setSize(mobileSize);
-        
-        driver.get(EN_WIKI);
-        
-        // Verify basic page structure
-        WebElement mainContent = wait.until(ExpectedConditions.presenceOfElementLocated(
-            By.cssSelector("#content")));
-        Assert.assertTrue(mainContent.isDisplayed(),
-            "Main content should be visible in mobile view");
-            
-        // Verify logo is present
-        WebElement logo = wait.until(ExpectedConditions.presenceOfElementLocated(
-            By.cssSelector(".mw-logo, .mw-wiki-logo")));
-        Assert.assertTrue(logo.isDisplayed(),
-            "Logo should be visible in mobile view");
-        
-        // Reset viewport
-        driver.manage().window().maximize();
+        driver().manage().window().setSize(mobileSize);
+        try {
+            open(EN_WIKI);
+
+            // Verify basic page structure
+            WebElement mainContent = waitFor().until(EventWait.presenceOfElementLocated(
+                By.cssSelector("#content")));
+            Assert.assertTrue(mainContent.isDisplayed(),
+                "Main content should be visible in mobile view");
+
+            // Verify logo is present
+            WebElement logo = waitFor().until(EventWait.presenceOfElementLocated(
+                By.cssSelector(".mw-logo, .mw-wiki-logo")));
+            Assert.assertTrue(logo.isDisplayed(),
+                "Logo should be visible in mobile view");
+        } finally {
+            // Reset viewport, also after a failure, since the browser is reused by later tests
+            driver().manage().window().setSize(DESKTOP_SIZE);
+        }
     }
 
     @Test(priority = 8)
     public void testAdvancedSearch() {
-        driver.get(EN_WIKI + "/wiki/Special:Search");
+        open(EN_WIKI + "/wiki/Special:Search");
         
         // Use search input on Special:Search page
-        WebElement searchInput = wait.until(ExpectedConditions.elementToBeClickable(
-            By.cssSelector("input.oo-ui-inputWidget-input")));
-        searchInput.sendKeys("automation testing");
-        searchInput.sendKeys(Keys.ENTER);
+        By searchInput = By.cssSelector("input.oo-ui-inputWidget-input");
+        LocatorCache cache = LocatorCache.of(driver());
+        cache.put(searchInput, waitFor().until(EventWait.elementToBeClickable(searchInput)));
+        // The search widget may re-render the input while typing, which the cache recovers from
+        cache.run(searchInput, input -> input.sendKeys("automation testing"));
+        cache.run(searchInput, input -> input.sendKeys(Keys.ENTER));
         
         // Verify search results or options
-        WebElement searchContent = wait.until(ExpectedConditions.presenceOfElementLocated(
+        WebElement searchContent = waitFor().until(EventWait.presenceOfElementLocated(
             By.cssSelector(".mw-search-results, .searchresults")));
         Assert.assertTrue(searchContent.isDisplayed(), 
             "Search results or options should be displayed");
         
         // Verify presence of advanced features
-        List<WebElement> advancedFeatures = driver.findElements(
+        List<WebElement> advancedFeatures = driver().findElements(
             By.cssSelector(".mw-search-profile-tabs, .search-types"));
         Assert.assertTrue(advancedFeatures.size() > 0, 
             "Advanced search features should be available");
@@ -177,22 +190,22 @@ public class WikipediaUITest {
 
     @Test(priority = 9)
     public void testArticleActions() {
-        driver.get(EN_WIKI + "/wiki/Software_testing");
+        open(EN_WIKI + "/wiki/Software_testing");
         
         // Test view history using URL
-        String historyUrl = driver.getCurrentUrl() + "?action=history";
-        driver.get(historyUrl);
+        String historyUrl = driver().getCurrentUrl() + "?action=history";
+        open(historyUrl);
         
-        WebElement historyContent = wait.until(ExpectedConditions.presenceOfElementLocated(
+        WebElement historyContent = waitFor().until(EventWait.presenceOfElementLocated(
             By.cssSelector("#pagehistory, .mw-history-container")));
         Assert.assertTrue(historyContent.isDisplayed(), 
             "History page should be displayed");
         
         // Test talk page using URL
-        String talkUrl = driver.getCurrentUrl().replace("action=history", "").replace("Software_testing", "Talk:Software_testing");
-        driver.get(talkUrl);
+        String talkUrl = driver().getCurrentUrl().replace("action=history", "").replace("Software_testing", "Talk:Software_testing");
+        open(talkUrl);
         
-        WebElement talkContent = wait.until(ExpectedConditions.presenceOfElementLocated(
+        WebElement talkContent = waitFor().until(EventWait.presenceOfElementLocated(
             By.cssSelector("#mw-content-text")));
         Assert.assertTrue(talkContent.isDisplayed(), 
             "Talk page should be displayed");
@@ -200,39 +213,53 @@ public class WikipediaUITest {
 
     @Test(priority = 10)
     public void testAccessibilityFeatures() {
-        driver.get(EN_WIKI);
+        open(EN_WIKI);
+        
+        PageQuery.PageSnapshot page = PageQuery.on(driver())
+            .select("landmarks", "[role='main'], [role='navigation'], [role='search']")
+            .select("headings", "h1, h2, h3, h4, h5, h6")
+            .select("skipLinks", "[href='#content'], .mw-jump-link")
+            .run();
         
         // Test main landmarks
-        List<WebElement> landmarks = driver.findElements(
-            By.cssSelector("[role='main'], [role='navigation'], [role='search']"));
-        Assert.assertTrue(landmarks.size() > 0, 
+        Assert.assertTrue(page.count("landmarks") > 0, 
             "Page should have ARIA landmarks");
         
         // Test heading hierarchy
-        List<WebElement> headings = driver.findElements(
-            By.cssSelector("h1, h2, h3, h4, h5, h6"));
-        Assert.assertTrue(headings.size() > 0, 
+        Assert.assertTrue(page.count("headings") > 0, 
             "Page should have proper heading hierarchy");
         
         // Test skip link (if visible on focus)
-        List<WebElement> skipLinks = driver.findElements(
-            By.cssSelector("[href='#content'], .mw-jump-link"));
-        Assert.assertTrue(skipLinks.size() > 0, 
+        Assert.assertTrue(page.count("skipLinks") > 0, 
             "Skip navigation link should be present in DOM");
     }
 
-    @AfterMethod
-    public void resetBrowser() {
-        driver.manage().deleteAllCookies();
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        js.executeScript("window.sessionStorage.clear();");
-        js.executeScript("window.localStorage.clear();");
+    // Navigates, to the local snapshot when one is enabled, and records the page's browser timings against the running test
+    private void open(String url) {
+        PageTimings.open(driver(), SnapshotServer.url(url));
     }
 
-    @AfterClass
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    @AfterMethod(alwaysRun = true)
+    public void resetBrowser(ITestResult result) {
+        DriverPool pool = DriverPool.getInstance();
+        if (!pool.hasLease()) {
+            return;
+        }
+        try {
+            WebDriver driver = driver();
+            // Requests blocked after the last navigation, e.g. lazy-loaded images
+            RequestBlocker blocker = RequestBlocker.of(driver);
+            if (blocker != null) {
+                blocker.recordSavings(TestReport.getInstance(), result.getMethod().getMethodName());
+            }
+            driver.manage().deleteAllCookies();
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            js.executeScript("window.sessionStorage.clear();");
+            js.executeScript("window.localStorage.clear();");
+        } catch (WebDriverException e) {
+            // A crashed browser fails its health check and is replaced on release
+        } finally {
+            pool.release();
         }
     }
 } 
\ No newline at end of file
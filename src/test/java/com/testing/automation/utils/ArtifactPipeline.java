@@ -0,0 +1,180 @@
+package com.testing.automation.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.testng.ITestResult;
+
+/**
+ * Captures debugging artifacts of failed tests without slowing the suite down.
+ *
+ * Nothing runs for a passing test. When a test fails, {@link #captureFailure} asks every
+ * registered {@link Source} for raw bytes on the test thread (a screenshot, the page source,
+ * the last requests and responses) and queues them; one background thread compresses each
+ * failure into a zip next to the result log, which the report links. The queue is bounded by
+ * {@link TestConfig#ARTIFACT_QUEUE_CAPACITY} captures and {@link TestConfig#ARTIFACT_QUEUE_MAX_BYTES}:
+ * when the writer falls behind, new captures are dropped and counted rather than making tests
+ * wait, and once the queue is full sources are not even asked.
+ */
+public class ArtifactPipeline {
+    private static final List<Source> SOURCES = new CopyOnWriteArrayList<>();
+    private static final long IDLE_POLL_MILLIS = 20;
+
+    private final Path dir;
+    private final BlockingQueue<Capture> queue = new ArrayBlockingQueue<>(TestConfig.ARTIFACT_QUEUE_CAPACITY);
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private static class Holder {
+        private static final ArtifactPipeline PIPELINE =
+            new ArtifactPipeline(TestReport.getInstance().getResultLog().resolve("artifacts"));
+    }
+
+    public static ArtifactPipeline getInstance() {
+        return Holder.PIPELINE;
+    }
+
+    public ArtifactPipeline(Path dir) {
+        this.dir = dir;
+        Thread writer = new Thread(this::writeLoop, "artifact-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Adds a source asked for artifacts on every failure, on the failing test's thread. */
+    public static void register(Source source) {
+        SOURCES.add(source);
+    }
+
+    /**
+     * Collects the failed test's artifacts and queues them for writing. Returns the zip they
+     * will be written to, or null if nothing was captured or the capture was dropped.
+     */
+    public Path captureFailure(ITestResult result) {
+        if (!TestConfig.ARTIFACTS_ENABLED || SOURCES.isEmpty()) {
+            return null;
+        }
+        if (queue.remainingCapacity() == 0 || queuedBytes.get() >= TestConfig.ARTIFACT_QUEUE_MAX_BYTES) {
+            drop(result);
+            return null;
+        }
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (Source source : SOURCES) {
+            try {
+                source.capture(files);
+            } catch (RuntimeException e) {
+                // An artifact that cannot be captured must not hide the test's own failure
+                System.err.println("Error capturing failure artifact: " + e.getMessage());
+            }
+        }
+        if (files.isEmpty()) {
+            return null;
+        }
+        long bytes = 0;
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            if (file.getValue().length > TestConfig.ARTIFACT_MAX_FILE_BYTES) {
+                byte[] truncated = new byte[TestConfig.ARTIFACT_MAX_FILE_BYTES];
+                System.arraycopy(file.getValue(), 0, truncated, 0, truncated.length);
+                file.setValue(truncated);
+            }
+            bytes += file.getValue().length;
+        }
+        Path zip = dir.resolve(result.getMethod().getMethodName() + "-" + sequence.incrementAndGet() + ".zip");
+        pending.incrementAndGet();
+        if (queuedBytes.addAndGet(bytes) > TestConfig.ARTIFACT_QUEUE_MAX_BYTES
+                || !queue.offer(new Capture(zip, files, bytes))) {
+            queuedBytes.addAndGet(-bytes);
+            pending.decrementAndGet();
+            drop(result);
+            return null;
+        }
+        return zip;
+    }
+
+    /** Waits up to {@code timeoutMillis} for queued artifacts to be written; true if all were. */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(IDLE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getWritten() { return written.get(); }
+    public long getDropped() { return dropped.get(); }
+
+    private void drop(ITestResult result) {
+        dropped.incrementAndGet();
+        TestReport.getInstance().recordArtifactsDropped();
+        System.err.println("Artifact queue full, dropped failure artifacts of " + result.getMethod().getMethodName());
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Capture capture;
+            try {
+                capture = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                Files.createDirectories(dir);
+                try (OutputStream out = Files.newOutputStream(capture.zip);
+                     ZipOutputStream zip = new ZipOutputStream(out)) {
+                    for (Map.Entry<String, byte[]> file : capture.files.entrySet()) {
+                        zip.putNextEntry(new ZipEntry(file.getKey()));
+                        zip.write(file.getValue());
+                        zip.closeEntry();
+                    }
+                }
+                written.incrementAndGet();
+            } catch (IOException e) {
+                System.err.println("Error writing failure artifacts: " + e.getMessage());
+            } finally {
+                queuedBytes.addAndGet(-capture.bytes);
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    /** Supplies raw artifact bytes, by file name, for the test failing on the calling thread. */
+    @FunctionalInterface
+    public interface Source {
+        void capture(Map<String, byte[]> files);
+    }
+
+    private static class Capture {
+        private final Path zip;
+        private final Map<String, byte[]> files;
+        private final long bytes;
+
+        Capture(Path zip, Map<String, byte[]> files, long bytes) {
+            this.zip = zip;
+            this.files = files;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.testing.automation.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+/**
+ * Lazily produced test cases, usable directly as the {@code Iterator<Object[]>} a TestNG data
+ * provider returns, including with {@code parallel = true}.
+ *
+ * Cases come from a range, a generator, or a CSV or JSONL fixture read one line at a time, so
+ * only the cases being run are ever in memory. TestNG still keeps a result per invocation; for
+ * streams too large for that, {@link #runParallel(int, CaseAction)} runs every case inside one
+ * test on a fixed set of workers that each pull their next case only when done with the last,
+ * so at most {@code concurrency} cases are in flight and reading never runs ahead of testing.
+ */
+public class CaseStream implements Iterator<Object[]> {
+    private static final int REPORTED_FAILURES = 10;
+
+    private final Iterator<Object[]> source;
+
+    private CaseStream(Iterator<Object[]> source) {
+        this.source = source;
+    }
+
+    /** One case per int in [{@code from}, {@code to}). */
+    public static CaseStream range(int from, int to) {
+        return generate(Math.max(0, (long) to - from), i -> new Object[] {(int) (from + i)});
+    }
+
+    /** {@code count} cases, the i-th built by {@code generator} when it is needed. */
+    public static CaseStream generate(long count, LongFunction<Object[]> generator) {
+        return new CaseStream(new Iterator<Object[]>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return generator.apply(next++);
+            }
+        });
+    }
+
+    /** One case per line after the header of a CSV resource on the test classpath, as strings. */
+    public static CaseStream csv(String resource) {
+        return lines(resource, true, CaseStream::parseCsvLine);
+    }
+
+    /** One case per line of a JSONL resource on the test classpath, holding {@code fields} in order. */
+    public static CaseStream jsonl(String resource, String... fields) {
+        return lines(resource, false, line -> {
+            JsonObject object = JsonParser.parseString(line).getAsJsonObject();
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = toJava(object.get(fields[i]));
+            }
+            return values;
+        });
+    }
+
+    /** At most the first {@code max} cases. */
+    public CaseStream limit(long max) {
+        Iterator<Object[]> limited = source;
+        return new CaseStream(new Iterator<Object[]>() {
+            private long taken;
+
+            @Override
+            public boolean hasNext() {
+                return taken < max && limited.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                taken++;
+                return limited.next();
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        return source.hasNext();
+    }
+
+    @Override
+    public Object[] next() {
+        return source.next();
+    }
+
+    /**
+     * Runs {@code action} on every remaining case with at most {@code concurrency} in flight and
+     * returns the outcome. Timings recorded by the workers go to the calling test.
+     */
+    public Outcome runParallel(int concurrency, CaseAction action) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        ITestResult owner = Reporter.getCurrentTestResult();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "case-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                workers.execute(() -> {
+                    Reporter.setCurrentTestResult(owner);
+                    while (true) {
+                        Object[] testCase;
+                        try {
+                            testCase = nextOrNull();
+                        } catch (UncheckedIOException e) {
+                            // The source cannot be read any further
+                            outcome.fail(new Object[] {"<unreadable case>"}, e);
+                            return;
+                        } catch (RuntimeException e) {
+                            // A malformed fixture line fails its own case; the source has already moved past it
+                            outcome.fail(new Object[] {"<unreadable case>"}, e);
+                            continue;
+                        }
+                        if (testCase == null) {
+                            return;
+                        }
+                        try {
+                            action.run(testCase);
+                            outcome.passed.incrementAndGet();
+                        } catch (Throwable e) {
+                            outcome.fail(testCase, e);
+                        }
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        return outcome;
+    }
+
+    private synchronized Object[] nextOrNull() {
+        return source.hasNext() ? source.next() : null;
+    }
+
+    // The reader is closed once the last line has been read
+    private static CaseStream lines(String resource, boolean skipHeader, Function<String, Object[]> parser) {
+        InputStream in = CaseStream.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Test data not found on the classpath: " + resource);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new CaseStream(new Iterator<Object[]>() {
+            private String nextLine = readLine(skipHeader);
+
+            @Override
+            public boolean hasNext() {
+                return nextLine != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (nextLine == null) {
+                    throw new NoSuchElementException();
+                }
+                String line = nextLine;
+                nextLine = readLine(false);
+                return parser.apply(line);
+            }
+
+            private String readLine(boolean skipFirst) {
+                try {
+                    if (skipFirst) {
+                        reader.readLine();
+                    }
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.trim().isEmpty());
+                    if (line == null) {
+                        reader.close();
+                    }
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading test data " + resource, e);
+                }
+            }
+        });
+    }
+
+    // Comma-separated, with double quotes around fields that contain commas or quotes ("" is a quote)
+    private static Object[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray();
+    }
+
+    private static Object toJava(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        if (!value.isJsonPrimitive()) {
+            return value.toString();
+        }
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            double number = primitive.getAsDouble();
+            return number == Math.rint(number) && Math.abs(number) <= Integer.MAX_VALUE ? (Object) (int) number : number;
+        }
+        return primitive.getAsString();
+    }
+
+    @FunctionalInterface
+    public interface CaseAction {
+        void run(Object[] testCase) throws Exception;
+    }
+
+    /** Counts of a {@link #runParallel} run, with the first few failures. */
+    public static class Outcome {
+        private final AtomicLong passed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        void fail(Object[] testCase, Throwable error) {
+            if (failed.incrementAndGet() <= REPORTED_FAILURES) {
+                failures.add(Arrays.toString(testCase) + ": " + error.getMessage());
+            }
+        }
+
+        public long getPassed() { return passed.get(); }
+        public long getFailed() { return failed.get(); }
+        public long getTotal() { return getPassed() + getFailed(); }
+
+        /** Up to the first {@value #REPORTED_FAILURES} failures, as "[case]: message". */
+        public List<String> getFailures() {
+            return new ArrayList<>(failures);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("cases=%d passed=%d failed=%d%s", getTotal(), getPassed(), getFailed(),
+                failures.isEmpty() ? "" : " first failures: " + getFailures());
+        }
+    }
+}
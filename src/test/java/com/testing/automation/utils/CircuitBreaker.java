@@ -0,0 +1,174 @@
+package com.testing.automation.utils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.testng.SkipException;
+
+/**
+ * Per-origin circuit breaker, so a dead or overloaded target costs a few timeouts per run
+ * instead of one per test.
+ *
+ * Callers report each call's outcome; after {@link TestConfig#BREAKER_FAILURE_THRESHOLD}
+ * consecutive failures or latency-budget breaches the breaker opens and {@link #checkAvailable()}
+ * throws a {@link SkipException}, so every remaining test that needs the origin is skipped at
+ * once. While open, the first caller after each backoff period sends a health probe (a GET of
+ * the origin's root); any response below 500 closes the breaker, otherwise the backoff doubles
+ * up to {@link TestConfig#BREAKER_MAX_BACKOFF_MS}. Every breaker's state is shown in the report.
+ */
+public class CircuitBreaker {
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+    private static final HttpClient PROBE_CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(TestConfig.BREAKER_PROBE_TIMEOUT_MS))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+
+    public enum State { CLOSED, OPEN }
+
+    private final String origin;
+    private final LongSupplier clock;
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int trips;
+    private int probes;
+    private long backoffMillis;
+    private long nextProbeAt;
+    private String lastFailure;
+
+    private CircuitBreaker(String origin) {
+        this(origin, System::currentTimeMillis);
+    }
+
+    // Outside the registry, with the backoff timed by clock
+    CircuitBreaker(String origin, LongSupplier clock) {
+        this.origin = origin;
+        this.clock = clock;
+    }
+
+    /** The breaker for the scheme, host and port of {@code url}. */
+    public static CircuitBreaker forUrl(String url) {
+        return BREAKERS.computeIfAbsent(originOf(url), CircuitBreaker::new);
+    }
+
+    // Drops the breaker of url's origin, so it is not shown in the report
+    static void remove(String url) {
+        BREAKERS.remove(originOf(url));
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() >= 0 ? ":" + uri.getPort() : "");
+    }
+
+    public static Collection<CircuitBreaker> all() {
+        return new ArrayList<>(BREAKERS.values());
+    }
+
+    /** Returns if the origin may be called, probing it when due; otherwise skips the running test. */
+    public void checkAvailable() {
+        boolean probe;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return;
+            }
+            probe = clock.getAsLong() >= nextProbeAt;
+            if (probe) {
+                // Only this caller probes until the outcome is known
+                nextProbeAt = Long.MAX_VALUE;
+                probes++;
+            }
+        }
+        if (probe && probe()) {
+            synchronized (this) {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                backoffMillis = 0;
+            }
+            return;
+        }
+        synchronized (this) {
+            if (probe) {
+                backoffMillis = Math.min(backoffMillis * 2, TestConfig.BREAKER_MAX_BACKOFF_MS);
+                nextProbeAt = clock.getAsLong() + backoffMillis;
+            }
+        }
+        shortCircuited.incrementAndGet();
+        throw new SkipException("Circuit open for " + origin + " after " + lastFailure);
+    }
+
+    /** Records a completed call; one slower than the latency budget counts as a failure. */
+    public void recordSuccess(long latencyNanos) {
+        long latencyMillis = latencyNanos / 1_000_000;
+        if (latencyMillis > TestConfig.BREAKER_LATENCY_BUDGET_MS) {
+            recordFailure("response after " + latencyMillis + "ms, over the "
+                + TestConfig.BREAKER_LATENCY_BUDGET_MS + "ms budget");
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    public void recordFailure(Throwable error) {
+        recordFailure(error.getClass().getSimpleName() + ": " + error.getMessage());
+    }
+
+    public synchronized void recordFailure(String reason) {
+        lastFailure = reason;
+        if (state == State.CLOSED && ++consecutiveFailures >= TestConfig.BREAKER_FAILURE_THRESHOLD) {
+            state = State.OPEN;
+            trips++;
+            backoffMillis = TestConfig.BREAKER_INITIAL_BACKOFF_MS;
+            nextProbeAt = clock.getAsLong() + backoffMillis;
+            System.err.println("Circuit opened for " + origin + " after " + consecutiveFailures
+                + " consecutive failures, last: " + reason);
+        }
+    }
+
+    private boolean probe() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(origin + "/"))
+                .timeout(Duration.ofMillis(TestConfig.BREAKER_PROBE_TIMEOUT_MS))
+                .GET()
+                .build();
+            return PROBE_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            synchronized (this) {
+                lastFailure = "health probe failed: " + e;
+            }
+            return false;
+        }
+    }
+
+    public String getOrigin() { return origin; }
+    public synchronized State getState() { return state; }
+    public synchronized int getTrips() { return trips; }
+    public synchronized int getProbes() { return probes; }
+    public long getShortCircuited() { return shortCircuited.get(); }
+    public synchronized String getLastFailure() { return lastFailure; }
+
+    /** Origin, state, trips, probes, short-circuited calls and last failure, for the report. */
+    public synchronized List<String> summary() {
+        List<String> row = new ArrayList<>();
+        row.add(origin);
+        row.add(state.name());
+        row.add(String.valueOf(trips));
+        row.add(String.valueOf(probes));
+        row.add(String.valueOf(shortCircuited.get()));
+        row.add(lastFailure != null ? lastFailure : "");
+        return row;
+    }
+}
@@ -0,0 +1,106 @@
+package com.testing.automation.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class CircuitBreakerTest {
+    private HttpServer server;
+    private final AtomicInteger status = new AtomicInteger(503);
+    private final AtomicLong now = new AtomicLong();
+    private String origin;
+
+    // Answers the breaker's health probes with the current status
+    @BeforeMethod
+    public void startOrigin() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        origin = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopOrigin() {
+        CircuitBreaker.remove(origin);
+        server.stop(0);
+    }
+
+    @Test(description = "Breakers are shared per origin")
+    public void testOnePerOrigin() {
+        CircuitBreaker breaker = CircuitBreaker.forUrl(origin + "/posts/1");
+        assertSame(CircuitBreaker.forUrl(origin + "/users"), breaker);
+        assertEquals(breaker.getOrigin(), origin);
+        assertTrue(CircuitBreaker.all().contains(breaker));
+    }
+
+    @Test(description = "Consecutive failures open the breaker, a failed probe keeps it open, a good one closes it")
+    public void testOpenProbeClose() {
+        CircuitBreaker breaker = new CircuitBreaker(origin, now::get);
+        breaker.checkAvailable();
+
+        for (int i = 0; i < TestConfig.BREAKER_FAILURE_THRESHOLD; i++) {
+            assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+            breaker.recordFailure("connection refused");
+        }
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertEquals(breaker.getTrips(), 1);
+
+        // Within the backoff calls are skipped without probing
+        assertSkipped(breaker);
+        assertEquals(breaker.getProbes(), 0);
+        assertEquals(breaker.getShortCircuited(), 1);
+
+        // After it the first caller probes; a 503 keeps the breaker open and doubles the backoff
+        now.addAndGet(TestConfig.BREAKER_INITIAL_BACKOFF_MS);
+        assertSkipped(breaker);
+        assertEquals(breaker.getProbes(), 1);
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertSkipped(breaker);
+        assertEquals(breaker.getProbes(), 1);
+
+        status.set(200);
+        now.addAndGet(2 * TestConfig.BREAKER_INITIAL_BACKOFF_MS);
+        breaker.checkAvailable();
+        assertEquals(breaker.getProbes(), 2);
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(breaker.getShortCircuited(), 3);
+    }
+
+    @Test(description = "A success resets the failure count, and a response over the latency budget counts as a failure")
+    public void testSuccessAndLatencyBudget() {
+        CircuitBreaker breaker = new CircuitBreaker(origin, now::get);
+        for (int i = 0; i < TestConfig.BREAKER_FAILURE_THRESHOLD - 1; i++) {
+            breaker.recordFailure("timeout");
+        }
+        breaker.recordSuccess(1_000_000);
+        breaker.recordFailure("timeout");
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+
+        long overBudgetNanos = (TestConfig.BREAKER_LATENCY_BUDGET_MS + 1) * 1_000_000;
+        for (int i = 0; i < TestConfig.BREAKER_FAILURE_THRESHOLD - 1; i++) {
+            breaker.recordSuccess(overBudgetNanos);
+        }
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertTrue(breaker.getLastFailure().contains("over the"), breaker.getLastFailure());
+    }
+
+    private static void assertSkipped(CircuitBreaker breaker) {
+        try {
+            breaker.checkAvailable();
+            fail("Expected the open breaker to skip the call");
+        } catch (SkipException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.testing.automation.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for the suite's own operations, so a recording shows API
+ * requests, page loads and UI waits next to the JVM's GC, allocation and thread events.
+ *
+ * They cost next to nothing when no recording is running; record them with
+ * {@code -XX:StartFlightRecording} or with the continuous recording of a {@link SoakRunner}
+ * run, and look for them under "Test Automation" in JDK Mission Control.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    @Name("com.testing.automation.Request")
+    @Label("API Request")
+    @Category("Test Automation")
+    @StackTrace(false)
+    public static class RequestEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Method")
+        public String method;
+        @Label("Path")
+        @Description("Path template, e.g. /posts/{id}")
+        public String path;
+        @Label("Status")
+        public int status;
+        @Label("Response Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("com.testing.automation.Navigation")
+    @Label("Page Navigation")
+    @Category("Test Automation")
+    @StackTrace(false)
+    public static class NavigationEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("URL")
+        public String url;
+        @Label("Time to First Byte")
+        @Timespan(Timespan.MILLISECONDS)
+        public long ttfb;
+        @Label("DOMContentLoaded")
+        @Timespan(Timespan.MILLISECONDS)
+        public long domContentLoaded;
+        @Label("Resources")
+        public long resources;
+        @Label("Transferred")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("com.testing.automation.Wait")
+    @Label("UI Wait")
+    @Category("Test Automation")
+    @StackTrace(false)
+    public static class WaitEvent extends Event {
+        @Label("Test")
+        public String test;
+        @Label("Condition")
+        public String condition;
+        @Label("Timed Out")
+        public boolean timedOut;
+    }
+
+    @Name("com.testing.automation.SoakCycle")
+    @Label("Soak Cycle")
+    @Category("Test Automation")
+    @StackTrace(false)
+    public static class SoakCycleEvent extends Event {
+        @Label("Cycle")
+        public int cycle;
+        @Label("Failed Tests")
+        public int failedTests;
+        @Label("Heap After GC")
+        @DataAmount
+        public long heapAfterGc;
+        @Label("Child Processes")
+        public long childProcesses;
+        @Label("Open Sockets")
+        public long openSockets;
+    }
+}
@@ -0,0 +1,257 @@
+package com.testing.automation.utils;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values are kept in microseconds. Below 256us every value has its own bucket; above that
+ * each power of two is split into 128 buckets, so any recorded value is reported within
+ * 0.8% of its true value. The whole range up to ~71 minutes fits in 3,328 counters that
+ * are allocated once, and {@link #recordNanos(long)} only touches atomics, so it can be
+ * called from any thread on a hot path without allocating.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_EXPONENT = 31;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        long current;
+        while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+            // retry
+        }
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /** Adds every sample of {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /** Copy of the non-empty buckets, compact enough to pass between JVMs as JSON. */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        long[] buckets = new long[BUCKET_COUNT * 2];
+        int used = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                buckets[used++] = i;
+                buckets[used++] = count;
+            }
+        }
+        snapshot.buckets = Arrays.copyOf(buckets, used);
+        snapshot.totalMicros = totalMicros.get();
+        snapshot.min = min.get();
+        snapshot.max = max.get();
+        return snapshot;
+    }
+
+    public static LatencyHistogram fromSnapshot(Snapshot snapshot) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = 0;
+        for (int i = 0; i + 1 < snapshot.buckets.length; i += 2) {
+            histogram.counts.set((int) snapshot.buckets[i], snapshot.buckets[i + 1]);
+            total += snapshot.buckets[i + 1];
+        }
+        histogram.totalCount.set(total);
+        histogram.totalMicros.set(snapshot.totalMicros);
+        histogram.min.set(snapshot.min);
+        histogram.max.set(snapshot.max);
+        return histogram;
+    }
+
+    /** Writes the non-empty buckets in the binary form read back by {@link #readFrom(ByteBuffer)}. */
+    public void writeTo(DataOutput out) throws IOException {
+        Snapshot snapshot = snapshot();
+        out.writeLong(snapshot.totalMicros);
+        out.writeLong(snapshot.min);
+        out.writeLong(snapshot.max);
+        out.writeInt(snapshot.buckets.length / 2);
+        for (int i = 0; i < snapshot.buckets.length; i += 2) {
+            out.writeShort((int) snapshot.buckets[i]);
+            out.writeLong(snapshot.buckets[i + 1]);
+        }
+    }
+
+    public static LatencyHistogram readFrom(ByteBuffer in) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.totalMicros = in.getLong();
+        snapshot.min = in.getLong();
+        snapshot.max = in.getLong();
+        snapshot.buckets = new long[in.getInt() * 2];
+        for (int i = 0; i < snapshot.buckets.length; i += 2) {
+            snapshot.buckets[i] = in.getShort() & 0xFFFF;
+            snapshot.buckets[i + 1] = in.getLong();
+        }
+        return fromSnapshot(snapshot);
+    }
+
+    /** Moves {@code in} past a histogram written by {@link #writeTo(DataOutput)} without decoding it. */
+    public static void skip(ByteBuffer in) {
+        in.position(in.position() + 3 * Long.BYTES);
+        int buckets = in.getInt();
+        in.position(in.position() + buckets * (Short.BYTES + Long.BYTES));
+    }
+
+    /**
+     * One-sided Mann-Whitney U test: the probability of values at least this much larger than
+     * {@code baseline}'s if both came from the same distribution. Samples in the same bucket
+     * count as ties, so this runs over bucket counts rather than individual samples.
+     */
+    public double mannWhitneyPValue(LatencyHistogram baseline) {
+        double n1 = getCount();
+        double n2 = baseline.getCount();
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        double u = 0;
+        double tieTerm = 0;
+        long baselineBelow = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long current = counts.get(i);
+            long base = baseline.counts.get(i);
+            u += current * (baselineBelow + base / 2.0);
+            double ties = current + base;
+            tieTerm += ties * ties * ties - ties;
+            baselineBelow += base;
+        }
+        double n = n1 + n2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - n1 * n2 / 2 - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public double getSumMillis() {
+        return totalMicros.get() / 1000.0;
+    }
+
+    /**
+     * Samples at or below each of {@code upperBoundsMicros} (ascending), for cumulative
+     * histogram buckets. A bucket straddling a bound counts towards the next bound up.
+     */
+    public long[] countsAtOrBelow(long[] upperBoundsMicros) {
+        long[] cumulative = new long[upperBoundsMicros.length];
+        int bound = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT && bound < upperBoundsMicros.length; i++) {
+            while (bound < upperBoundsMicros.length && highestEquivalentValue(i) > upperBoundsMicros[bound]) {
+                cumulative[bound++] = seen;
+            }
+            seen += counts.get(i);
+        }
+        while (bound < upperBoundsMicros.length) {
+            cumulative[bound++] = seen;
+        }
+        return cumulative;
+    }
+
+    public double getMinMillis() {
+        return getCount() == 0 ? 0 : min.get() / 1000.0;
+    }
+
+    public double getMaxMillis() {
+        return max.get() / 1000.0;
+    }
+
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.get() / 1000.0 / count;
+    }
+
+    /** Value in milliseconds at the given percentile (0-100), reported as the top of its bucket. */
+    public double getPercentileMillis(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    // Abramowitz and Stegun 7.1.26, accurate to about 1e-7
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027
+            + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS + 1));
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int exponent = SUB_BUCKET_BITS + offset / SUB_BUCKET_HALF;
+        long subBucket = SUB_BUCKET_HALF + offset % SUB_BUCKET_HALF;
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+        // bucket index, count pairs
+        private long[] buckets = new long[0];
+        private long totalMicros;
+        private long min;
+        private long max;
+    }
+}
@@ -0,0 +1,116 @@
+package com.testing.automation.utils;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test(description = "Values below 256us are exact")
+    public void testExactBelowSubBucketCount() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100; micros++) {
+            histogram.recordMicros(micros);
+        }
+        assertEquals(histogram.getCount(), 100);
+        assertEquals(histogram.getPercentileMillis(50), 0.050, 1e-9);
+        assertEquals(histogram.getPercentileMillis(95), 0.095, 1e-9);
+        assertEquals(histogram.getPercentileMillis(99), 0.099, 1e-9);
+        assertEquals(histogram.getPercentileMillis(100), 0.100, 1e-9);
+        assertEquals(histogram.getMeanMillis(), 0.0505, 1e-9);
+        assertEquals(histogram.getMinMillis(), 0.001, 1e-9);
+        assertEquals(histogram.getMaxMillis(), 0.100, 1e-9);
+    }
+
+    @Test(description = "Larger values are reported as the top of their bucket, capped at the maximum")
+    public void testPercentileIsTopOfBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1000us falls in the 4us wide bucket 1000-1003
+        histogram.recordMicros(1000);
+        histogram.recordMicros(2000);
+        assertEquals(histogram.getPercentileMillis(50), 1.003, 1e-9);
+        assertEquals(histogram.getPercentileMillis(100), 2.000, 1e-9);
+
+        LatencyHistogram single = new LatencyHistogram();
+        single.recordMicros(1000);
+        assertEquals(single.getPercentileMillis(50), 1.000, 1e-9);
+    }
+
+    @Test(description = "Every value is reported within 0.8% of itself")
+    public void testRelativeError() {
+        for (long micros = 1; micros < 10_000_000; micros = micros * 3 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.recordMicros(micros);
+            histogram.recordMicros(Long.MAX_VALUE);
+            double reported = histogram.getPercentileMillis(50) * 1000;
+            assertTrue(reported >= micros && reported <= micros * 1.008,
+                micros + "us reported as " + reported + "us");
+        }
+    }
+
+    @Test(description = "Out of range values are clamped instead of failing")
+    public void testClamping() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+        assertEquals(histogram.getCount(), 2);
+        assertEquals(histogram.getMinMillis(), 0.0);
+        assertEquals(histogram.getMaxMillis(), ((1L << 32) - 1) / 1000.0, 1e-9);
+    }
+
+    @Test(description = "Cumulative counts at bucket boundaries")
+    public void testCountsAtOrBelow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 255 has its own bucket, 256 and 257 share one, 258 starts the next
+        histogram.recordMicros(255);
+        histogram.recordMicros(256);
+        histogram.recordMicros(257);
+        histogram.recordMicros(258);
+        long[] counts = histogram.countsAtOrBelow(new long[] {254, 255, 256, 257, 259, 1_000_000});
+        // A bucket straddling a bound counts towards the next bound up
+        assertEquals(counts, new long[] {0, 1, 1, 3, 4, 4});
+    }
+
+    @Test(description = "Merging histograms adds their samples")
+    public void testAdd() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordMicros(10);
+        first.recordMicros(20);
+        second.recordMicros(5);
+        second.recordMicros(40);
+        first.add(second);
+        assertEquals(first.getCount(), 4);
+        assertEquals(first.getSumMillis(), 0.075, 1e-9);
+        assertEquals(first.getMinMillis(), 0.005, 1e-9);
+        assertEquals(first.getMaxMillis(), 0.040, 1e-9);
+        assertEquals(first.getPercentileMillis(50), 0.010, 1e-9);
+    }
+
+    @Test(description = "Mann-Whitney p-value of a known sample")
+    public void testMannWhitneyPValue() {
+        LatencyHistogram current = histogramOf(4, 5, 6);
+        LatencyHistogram baseline = histogramOf(1, 2, 3);
+        // U = 9, no ties: z = (9 - 4.5 - 0.5) / sqrt(3 * 3 * 7 / 12) = 1.7457, one-sided p = 0.04043
+        assertEquals(current.mannWhitneyPValue(baseline), 0.04043, 1e-4);
+        // The other way round U = 0: z = (0 - 4.5 - 0.5) / 2.2913 = -2.1822, p = 0.98545
+        assertEquals(baseline.mannWhitneyPValue(current), 0.98545, 1e-4);
+    }
+
+    @Test(description = "Identical or empty samples are never significant")
+    public void testMannWhitneyNoDifference() {
+        LatencyHistogram current = histogramOf(1, 2, 3, 4, 5, 6, 7, 8);
+        LatencyHistogram baseline = histogramOf(1, 2, 3, 4, 5, 6, 7, 8);
+        assertTrue(current.mannWhitneyPValue(baseline) > 0.5);
+        assertEquals(current.mannWhitneyPValue(new LatencyHistogram()), 1.0);
+        // All samples tied in one bucket leave no variance
+        assertEquals(histogramOf(7, 7).mannWhitneyPValue(histogramOf(7, 7)), 1.0);
+    }
+
+    private static LatencyHistogram histogramOf(long... micros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : micros) {
+            histogram.recordMicros(value);
+        }
+        return histogram;
+    }
+}
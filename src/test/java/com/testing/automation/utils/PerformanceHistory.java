@@ -0,0 +1,228 @@
+package com.testing.automation.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only store of latency histograms from every run, and the regression check against it.
+ *
+ * Each run appends one record per test and endpoint: run timestamp, commit, series name and the
+ * histogram's non-empty buckets, a few hundred bytes each. Opening the store memory-maps the
+ * file and indexes the records by series, timestamp and commit without decoding them; only the
+ * histograms of the runs a baseline needs are decoded. A record cut short by a crash is ignored.
+ *
+ * A series regresses when its p95 is more than {@link TestConfig#PERF_MAX_P95_INCREASE} above
+ * that of the last {@link TestConfig#PERF_BASELINE_RUNS} runs combined, and the slowdown is
+ * significant by a one-sided Mann-Whitney test. A series with fewer than
+ * {@value #MIN_RANK_TEST_SAMPLES} samples on either side is reported as having insufficient
+ * samples and never regresses, since a p95 of a handful of requests is mostly noise.
+ */
+public class PerformanceHistory {
+    private static final int RECORD_MAGIC = 0x50455246; // "PERF"
+    private static final int MIN_RANK_TEST_SAMPLES = 8;
+
+    private final Path file;
+    private final Map<String, List<Entry>> index = new HashMap<>();
+    private ByteBuffer records;
+
+    private PerformanceHistory(Path file) {
+        this.file = file;
+    }
+
+    /** Opens the store, or an empty one if the file does not exist yet. */
+    public static PerformanceHistory open(Path file) {
+        PerformanceHistory history = new PerformanceHistory(file);
+        if (Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                history.records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                history.buildIndex();
+            } catch (IOException e) {
+                System.err.println("Error reading performance history: " + e.getMessage());
+            }
+        }
+        return history;
+    }
+
+    /** Every recorded run of a series, oldest first. */
+    public List<Entry> entries(String test, String endpoint) {
+        return index.getOrDefault(seriesKey(test, endpoint), Collections.emptyList());
+    }
+
+    public Comparison compare(String test, String endpoint, LatencyHistogram current) {
+        List<Entry> runs = entries(test, endpoint);
+        List<Entry> baselineRuns = runs.subList(Math.max(0, runs.size() - TestConfig.PERF_BASELINE_RUNS), runs.size());
+        if (baselineRuns.isEmpty()) {
+            return new Comparison(0, current.getPercentileMillis(95), 0, Double.NaN, false);
+        }
+
+        LatencyHistogram baseline = new LatencyHistogram();
+        for (Entry run : baselineRuns) {
+            baseline.add(histogram(run));
+        }
+        double baselineP95 = baseline.getPercentileMillis(95);
+        double currentP95 = current.getPercentileMillis(95);
+        if (current.getCount() < MIN_RANK_TEST_SAMPLES || baseline.getCount() < MIN_RANK_TEST_SAMPLES) {
+            return new Comparison(baselineRuns.size(), currentP95, baselineP95, Double.NaN, false);
+        }
+        double change = baselineP95 > 0 ? currentP95 / baselineP95 - 1 : 0;
+        double pValue = current.mannWhitneyPValue(baseline);
+        return new Comparison(baselineRuns.size(), currentP95, baselineP95, pValue,
+            change > TestConfig.PERF_MAX_P95_INCREASE && pValue < TestConfig.PERF_SIGNIFICANCE);
+    }
+
+    /** Appends one record per series of a finished run. */
+    public void append(long timestamp, String commit, Map<String, Map<String, LatencyHistogram>> timings) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                for (Map.Entry<String, Map<String, LatencyHistogram>> test : timings.entrySet()) {
+                    for (Map.Entry<String, LatencyHistogram> endpoint : test.getValue().entrySet()) {
+                        out.writeInt(RECORD_MAGIC);
+                        out.writeLong(timestamp);
+                        writeString(out, commit);
+                        writeString(out, test.getKey());
+                        writeString(out, endpoint.getKey());
+                        endpoint.getValue().writeTo(out);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing performance history: " + e.getMessage());
+        }
+    }
+
+    /** Commit under test, from -Dperf.commit or git, or "unknown". */
+    public static String currentCommit() {
+        String commit = System.getProperty("perf.commit");
+        if (commit != null) {
+            return commit;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = git.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 && !output.isEmpty()) {
+                return output;
+            }
+        } catch (IOException e) {
+            // git not installed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    private void buildIndex() {
+        ByteBuffer in = records.duplicate();
+        try {
+            while (in.remaining() >= Integer.BYTES && in.getInt() == RECORD_MAGIC) {
+                long timestamp = in.getLong();
+                String commit = readString(in);
+                String test = readString(in);
+                String endpoint = readString(in);
+                int histogramOffset = in.position();
+                LatencyHistogram.skip(in);
+                index.computeIfAbsent(seriesKey(test, endpoint), key -> new ArrayList<>())
+                    .add(new Entry(timestamp, commit, histogramOffset));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Truncated last record
+        }
+    }
+
+    private LatencyHistogram histogram(Entry entry) {
+        ByteBuffer in = records.duplicate();
+        in.position(entry.offset);
+        return LatencyHistogram.readFrom(in);
+    }
+
+    private static String seriesKey(String test, String endpoint) {
+        return test + '\n' + endpoint;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** One run of one series in the store. */
+    public static class Entry {
+        private final long timestamp;
+        private final String commit;
+        private final int offset;
+
+        Entry(long timestamp, String commit, int offset) {
+            this.timestamp = timestamp;
+            this.commit = commit;
+            this.offset = offset;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public String getCommit() { return commit; }
+    }
+
+    public static class Comparison {
+        private final int baselineRuns;
+        private final double currentP95;
+        private final double baselineP95;
+        private final double pValue;
+        private final boolean regressed;
+
+        Comparison(int baselineRuns, double currentP95, double baselineP95, double pValue, boolean regressed) {
+            this.baselineRuns = baselineRuns;
+            this.currentP95 = currentP95;
+            this.baselineP95 = baselineP95;
+            this.pValue = pValue;
+            this.regressed = regressed;
+        }
+
+        public int getBaselineRuns() { return baselineRuns; }
+        public double getCurrentP95Millis() { return currentP95; }
+        public double getBaselineP95Millis() { return baselineP95; }
+        /** Mann-Whitney p-value, or NaN when there were too few samples to run the test. */
+        public double getPValue() { return pValue; }
+        public boolean isRegressed() { return regressed; }
+
+        public double getChange() {
+            return baselineP95 > 0 ? currentP95 / baselineP95 - 1 : 0;
+        }
+
+        @Override
+        public String toString() {
+            if (baselineRuns == 0) {
+                return "no baseline";
+            }
+            String verdict = String.format("p95 %.2fms vs %.2fms over %d runs (%+.0f%%", currentP95, baselineP95,
+                baselineRuns, getChange() * 100);
+            verdict += Double.isNaN(pValue) ? ", insufficient samples)" : String.format(", p=%.3g)", pValue);
+            return (regressed ? "REGRESSION: " : "") + verdict;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.testing.automation.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class PerformanceHistoryTest {
+    private Path dir;
+    private Path file;
+
+    @BeforeMethod
+    public void createStore() throws IOException {
+        dir = Files.createTempDirectory("perf-history");
+        file = dir.resolve("latency.bin");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStore() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Test(description = "Appended runs read back per series, oldest first, with their histograms")
+    public void testRecordRoundTrip() {
+        PerformanceHistory.open(file).append(1000L, "abc1234", Map.of(
+            "API.testGetPost", Map.of("GET /posts/1", histogramOf(20, 1000, 1000)),
+            "API.testGetUser", Map.of("GET /users/1", histogramOf(30, 2000, 1000))));
+        PerformanceHistory.open(file).append(2000L, "def5678", Map.of(
+            "API.testGetPost", Map.of("GET /posts/1", histogramOf(20, 1000, 1000))));
+
+        PerformanceHistory history = PerformanceHistory.open(file);
+        List<PerformanceHistory.Entry> posts = history.entries("API.testGetPost", "GET /posts/1");
+        assertEquals(posts.size(), 2);
+        assertEquals(posts.get(0).getTimestamp(), 1000L);
+        assertEquals(posts.get(0).getCommit(), "abc1234");
+        assertEquals(posts.get(1).getTimestamp(), 2000L);
+        assertEquals(posts.get(1).getCommit(), "def5678");
+        assertEquals(history.entries("API.testGetUser", "GET /users/1").size(), 1);
+        assertTrue(history.entries("API.testGetUser", "GET /posts/1").isEmpty());
+
+        // The baseline is decoded from the stored histograms: 40 samples of 1000-1999us
+        PerformanceHistory.Comparison same = history.compare("API.testGetPost", "GET /posts/1",
+            histogramOf(20, 1000, 1000));
+        assertEquals(same.getBaselineRuns(), 2);
+        assertEquals(same.getBaselineP95Millis(), same.getCurrentP95Millis(), 1e-9);
+        assertFalse(same.isRegressed());
+    }
+
+    @Test(description = "A record cut short by a crash is ignored")
+    public void testTruncatedRecord() throws IOException {
+        PerformanceHistory.open(file).append(1000L, "abc1234",
+            Map.of("API.testGetPost", Map.of("GET /posts/1", histogramOf(20, 1000, 1000))));
+        long complete = Files.size(file);
+        PerformanceHistory.open(file).append(2000L, "def5678",
+            Map.of("API.testGetPost", Map.of("GET /posts/1", histogramOf(20, 1000, 1000))));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete + (Files.size(file) - complete) / 2);
+        }
+
+        List<PerformanceHistory.Entry> posts = PerformanceHistory.open(file).entries("API.testGetPost", "GET /posts/1");
+        assertEquals(posts.size(), 1);
+        assertEquals(posts.get(0).getCommit(), "abc1234");
+    }
+
+    @Test(description = "A significantly slower series regresses, one with too few samples never does")
+    public void testRegression() {
+        PerformanceHistory.open(file).append(1000L, "abc1234",
+            Map.of("API.testGetPost", Map.of("GET /posts/1", histogramOf(50, 10_000, 1000))));
+        PerformanceHistory history = PerformanceHistory.open(file);
+
+        PerformanceHistory.Comparison slower = history.compare("API.testGetPost", "GET /posts/1",
+            histogramOf(50, 20_000, 1000));
+        assertTrue(slower.isRegressed(), slower.toString());
+        assertTrue(slower.getPValue() < TestConfig.PERF_SIGNIFICANCE, slower.toString());
+
+        PerformanceHistory.Comparison few = history.compare("API.testGetPost", "GET /posts/1",
+            histogramOf(3, 20_000, 1000));
+        assertFalse(few.isRegressed(), few.toString());
+        assertTrue(Double.isNaN(few.getPValue()));
+        assertTrue(few.toString().contains("insufficient samples"), few.toString());
+
+        assertEquals(history.compare("API.new", "GET /", histogramOf(50, 1000, 10)).toString(), "no baseline");
+    }
+
+    // count samples spread evenly from fromMicros over spreadMicros
+    private static LatencyHistogram histogramOf(int count, long fromMicros, long spreadMicros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < count; i++) {
+            histogram.recordMicros(fromMicros + i * spreadMicros / count);
+        }
+        return histogram;
+    }
+}
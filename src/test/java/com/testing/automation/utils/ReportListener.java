@@ -0,0 +1,129 @@
+package com.testing.automation.utils;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Feeds every test outcome into the suite-wide {@link TestReport} and writes the report when
+ * the suite finishes. Registered through META-INF/services, so it applies to testng.xml runs
+ * and to single-class runs alike.
+ *
+ * With -Dperf.failOnRegression=true a test that passed fails when any of its timings has
+ * regressed against the performance history.
+ *
+ * Test progress is counted in {@link SuiteMetrics}, which with -Dmetrics.enabled=true is
+ * served and snapshotted for as long as the suite runs.
+ *
+ * A failed test's artifacts are handed to the {@link ArtifactPipeline} right after the test
+ * method returns, while its browser and request history are still as the failure left them.
+ */
+public class ReportListener implements ITestListener, ISuiteListener, IInvokedMethodListener {
+    private static final String ARTIFACTS_ATTRIBUTE = "artifacts";
+    private static final long ARTIFACT_FLUSH_MILLIS = 10_000;
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        if (TestConfig.PERF_FAIL_ON_REGRESSION && result.getStatus() == ITestResult.SUCCESS) {
+            List<String> regressions = TestReport.getInstance().regressions(result.getMethod().getMethodName());
+            if (!regressions.isEmpty()) {
+                result.setStatus(ITestResult.FAILURE);
+                result.setThrowable(new AssertionError("Performance regression: " + String.join("; ", regressions)));
+            }
+        }
+        if (result.getStatus() == ITestResult.FAILURE) {
+            Path artifacts = ArtifactPipeline.getInstance().captureFailure(result);
+            if (artifacts != null) {
+                result.setAttribute(ARTIFACTS_ATTRIBUTE, artifacts);
+            }
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        SuiteMetrics.getInstance().start(metricsSnapshot());
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        SuiteMetrics.getInstance().testStarted();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // A soak run keeps everything running between cycles and reports once, from SoakRunner
+        if (TestConfig.SOAK_MINUTES > 0) {
+            return;
+        }
+        SuiteMetrics.getInstance().stop(metricsSnapshot());
+        if (!ArtifactPipeline.getInstance().awaitIdle(ARTIFACT_FLUSH_MILLIS)) {
+            System.err.println("Failure artifacts still being written after " + ARTIFACT_FLUSH_MILLIS + "ms");
+        }
+        // A shard's results are rendered by the ShardRunner that launched it
+        if (TestConfig.SHARD_INDEX >= 0) {
+            TestReport.getInstance().writePart();
+        } else {
+            TestReport.getInstance().generateReport();
+        }
+    }
+
+    private static void record(ITestResult result) {
+        String testName = result.getMethod().getMethodName();
+        String description = result.getMethod().getDescription();
+        boolean passed = result.getStatus() == ITestResult.SUCCESS;
+        SuiteMetrics.getInstance().testFinished(passed ? "passed"
+            : result.getStatus() == ITestResult.SKIP ? "skipped" : "failed");
+        String error = result.getThrowable() != null ? result.getThrowable().getMessage() : null;
+        long duration = result.getEndMillis() - result.getStartMillis();
+        if (result.getStatus() == ITestResult.SKIP) {
+            TestReport.getInstance().addSkipped(testName, categoryOf(result), description, error, duration);
+            return;
+        }
+        TestReport.getInstance().addResult(testName, categoryOf(result), passed, description, error, duration,
+            (Path) result.getAttribute(ARTIFACTS_ATTRIBUTE));
+    }
+
+    // Each shard's JVM keeps its own snapshot in the shared result directory
+    private static Path metricsSnapshot() {
+        return TestReport.getInstance().getResultLog()
+            .resolve(TestConfig.SHARD_INDEX >= 0 ? "part" + TestConfig.SHARD_INDEX + "-metrics.prom" : "metrics.prom");
+    }
+
+    private static String categoryOf(ITestResult result) {
+        return categoryOf(result.getTestClass().getRealClass());
+    }
+
+    // com.testing.automation.api.APITest -> "API"
+    static String categoryOf(Class<?> testClass) {
+        String packageName = testClass.getPackage().getName();
+        return packageName.substring(packageName.lastIndexOf('.') + 1).toUpperCase();
+    }
+}
@@ -0,0 +1,59 @@
+package com.testing.automation.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * Inside a shard's JVM, keeps only the test methods the {@link ShardRunner} plan assigned to
+ * this shard. Methods missing from the plan (added since it was made) are spread by hash.
+ * Does nothing outside a sharded run. Registered through META-INF/services.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+    private static volatile Properties plan;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (TestConfig.SHARD_INDEX < 0) {
+            return methods;
+        }
+        return methods.stream()
+            .filter(method -> shardOf(method.getMethod()) == TestConfig.SHARD_INDEX)
+            .collect(Collectors.toList());
+    }
+
+    private static int shardOf(ITestNGMethod method) {
+        String id = ShardRunner.testId(method.getRealClass().getName(), method.getMethodName());
+        String shard = plan().getProperty(id);
+        return shard != null ? Integer.parseInt(shard) : Math.floorMod(id.hashCode(), TestConfig.SHARD_COUNT);
+    }
+
+    private static Properties plan() {
+        if (plan == null) {
+            synchronized (ShardInterceptor.class) {
+                if (plan == null) {
+                    Properties loaded = new Properties();
+                    if (TestConfig.REPORT_RESULT_DIR != null) {
+                        try (Reader reader = Files.newBufferedReader(
+                                Paths.get(TestConfig.REPORT_RESULT_DIR, ShardRunner.PLAN_FILE), StandardCharsets.UTF_8)) {
+                            loaded.load(reader);
+                        } catch (IOException e) {
+                            System.err.println("Error reading shard plan, assigning tests by hash: " + e.getMessage());
+                        }
+                    }
+                    plan = loaded;
+                }
+            }
+        }
+        return plan;
+    }
+}
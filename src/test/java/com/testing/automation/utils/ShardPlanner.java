@@ -0,0 +1,85 @@
+package com.testing.automation.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Splits test methods into balanced shards from their durations in earlier runs.
+ *
+ * A method's expected cost is an exponentially weighted average of its total duration (all
+ * data-provider rows together) over the last {@value #HISTORY_RUNS} result logs, so shards
+ * rebalance within a few runs when a test gets faster or slower. Methods with no history cost
+ * the median of those with history. Methods are then placed longest first, each on the
+ * currently lightest shard (LPT), which keeps the slowest shard within 4/3 of optimal.
+ */
+public class ShardPlanner {
+    private static final int HISTORY_RUNS = 10;
+    // Weight of the newest run in the moving average
+    private static final double NEWEST_WEIGHT = 0.5;
+    private static final double DEFAULT_COST_MILLIS = 1000;
+
+    private final Map<String, Double> history;
+    private final double defaultMillis;
+
+    public ShardPlanner(Map<String, Double> history) {
+        this.history = history;
+        List<Double> known = new ArrayList<>(history.values());
+        known.sort(null);
+        defaultMillis = known.isEmpty() ? DEFAULT_COST_MILLIS : known.get(known.size() / 2);
+    }
+
+    /** Planner over the expected duration of every test found in the recent result logs. */
+    public static ShardPlanner fromHistory() {
+        List<Path> runs = TestReport.previousRuns();
+        Map<String, Double> expected = new HashMap<>();
+        for (Path run : runs.subList(Math.max(0, runs.size() - HISTORY_RUNS), runs.size())) {
+            try {
+                TestReport.readDurations(run).forEach((test, millis) ->
+                    expected.merge(test, millis.doubleValue(),
+                        (older, newest) -> NEWEST_WEIGHT * newest + (1 - NEWEST_WEIGHT) * older));
+            } catch (IOException e) {
+                System.err.println("Error reading test history from " + run + ": " + e.getMessage());
+            }
+        }
+        return new ShardPlanner(expected);
+    }
+
+    /** Expected duration of a test, keyed as "CATEGORY.methodName" like the result log. */
+    public double expectedMillis(String test) {
+        Double millis = history.get(test);
+        return millis != null ? millis : defaultMillis;
+    }
+
+    /**
+     * Assigns each test to one of {@code shardCount} shards.
+     *
+     * @param tests test id to history key ("CATEGORY.methodName")
+     * @return test id to shard index
+     */
+    public Map<String, Integer> plan(Map<String, String> tests, int shardCount) {
+        List<String> longestFirst = new ArrayList<>(tests.keySet());
+        longestFirst.sort(Comparator.comparingDouble((String test) -> expectedMillis(tests.get(test))).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+        PriorityQueue<double[]> shards = new PriorityQueue<>(
+            Comparator.comparingDouble((double[] shard) -> shard[1]).thenComparingDouble(shard -> shard[0]));
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new double[] {i, 0});
+        }
+        Map<String, Integer> assignment = new LinkedHashMap<>();
+        for (String test : longestFirst) {
+            double[] lightest = shards.poll();
+            assignment.put(test, (int) lightest[0]);
+            lightest[1] += expectedMillis(tests.get(test));
+            shards.add(lightest);
+        }
+        return assignment;
+    }
+}
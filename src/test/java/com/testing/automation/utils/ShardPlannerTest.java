@@ -0,0 +1,58 @@
+package com.testing.automation.utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class ShardPlannerTest {
+
+    @Test(description = "Longest test first, each on the lightest shard, the lower index on a tie")
+    public void testLongestProcessingTimePlan() {
+        ShardPlanner planner = new ShardPlanner(Map.of(
+            "API.a", 7.0, "API.b", 6.0, "API.c", 5.0, "API.d", 4.0, "API.e", 3.0, "API.f", 2.0));
+        Map<String, Integer> plan = planner.plan(tests("a", "b", "c", "d", "e", "f"), 2);
+
+        // 7 -> 0, 6 -> 1, 5 -> 1 (7 vs 6), 4 -> 0 (7 vs 11), 3 -> 0 (11 vs 11), 2 -> 1 (14 vs 11)
+        assertEquals(plan, Map.of("T#a", 0, "T#b", 1, "T#c", 1, "T#d", 0, "T#e", 0, "T#f", 1));
+        assertEquals(shardMillis(planner, plan, 0), 14.0);
+        assertEquals(shardMillis(planner, plan, 1), 13.0);
+    }
+
+    @Test(description = "Tests without history cost the median of those with history")
+    public void testDefaultCost() {
+        ShardPlanner planner = new ShardPlanner(Map.of("API.a", 100.0, "API.b", 300.0, "API.c", 200.0));
+        assertEquals(planner.expectedMillis("API.a"), 100.0);
+        assertEquals(planner.expectedMillis("API.new"), 200.0);
+        assertEquals(new ShardPlanner(Map.of()).expectedMillis("API.new"), 1000.0);
+
+        // Two unknown tests at the 200ms median balance against the one 300ms test
+        Map<String, Integer> plan = planner.plan(tests("b", "x", "y"), 2);
+        assertEquals(plan.get("T#b"), Integer.valueOf(0));
+        assertEquals(plan.get("T#x"), Integer.valueOf(1));
+        assertEquals(plan.get("T#y"), Integer.valueOf(1));
+    }
+
+    @Test(description = "More shards than tests leaves the extra shards empty")
+    public void testMoreShardsThanTests() {
+        ShardPlanner planner = new ShardPlanner(Map.of("API.a", 5.0, "API.b", 9.0));
+        Map<String, Integer> plan = planner.plan(tests("a", "b"), 4);
+        assertEquals(plan, Map.of("T#b", 0, "T#a", 1));
+    }
+
+    // test id "T#name" -> history key "API.name"
+    private static Map<String, String> tests(String... names) {
+        Map<String, String> tests = new TreeMap<>();
+        for (String name : names) {
+            tests.put(ShardRunner.testId("T", name), "API." + name);
+        }
+        return tests;
+    }
+
+    private static double shardMillis(ShardPlanner planner, Map<String, Integer> plan, int shard) {
+        return plan.entrySet().stream()
+            .filter(test -> test.getValue() == shard)
+            .mapToDouble(test -> planner.expectedMillis("API." + test.getKey().substring("T#".length())))
+            .sum();
+    }
+}
@@ -0,0 +1,138 @@
+package com.testing.automation.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.testng.annotations.Test;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Runs a TestNG suite as {@code shard.count} JVMs in parallel, each running a balanced subset of
+ * its test methods, and merges their results into one report.
+ *
+ * The split comes from {@link ShardPlanner} and is written to the run's result directory, where
+ * every shard's {@link ShardInterceptor} reads it. Each shard logs its results into that same
+ * directory, so once all of them exit the merged report is generated over it, and the run
+ * becomes history for planning the next one. A shard's console output goes to shard-N.log
+ * beside its results, and TestNG's own reports into the shard-N directory there. System
+ * properties given to the runner are passed on to every shard.
+ *
+ * <pre>
+ * mvn test -Pshards -Dshard.count=4
+ * </pre>
+ */
+public class ShardRunner {
+    static final String PLAN_FILE = "shard-plan.properties";
+
+    public static void main(String[] args) throws Exception {
+        String suiteFile = new File(args.length > 0 ? args[0] : "testng.xml").getAbsolutePath();
+        int shardCount = Math.max(1, TestConfig.SHARD_COUNT);
+
+        Map<String, String> tests = discoverTests(suiteFile);
+        ShardPlanner planner = ShardPlanner.fromHistory();
+        Map<String, Integer> plan = planner.plan(tests, shardCount);
+
+        TestReport report = new TestReport();
+        Path resultDir = report.getResultLog().toAbsolutePath();
+        writePlan(resultDir, plan);
+
+        double[] expectedMillis = new double[shardCount];
+        int[] testCounts = new int[shardCount];
+        plan.forEach((test, shard) -> {
+            expectedMillis[shard] += planner.expectedMillis(tests.get(test));
+            testCounts[shard]++;
+        });
+
+        long start = System.nanoTime();
+        List<Process> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            System.out.printf("Shard %d: %d test methods, ~%.1fs expected%n", i, testCounts[i], expectedMillis[i] / 1000);
+            shards.add(new ProcessBuilder(shardCommand(i, shardCount, resultDir, suiteFile))
+                .redirectErrorStream(true)
+                .redirectOutput(resultDir.resolve("shard-" + i + ".log").toFile())
+                .start());
+        }
+
+        boolean failed = false;
+        for (int i = 0; i < shardCount; i++) {
+            int exitCode = shards.get(i).waitFor();
+            System.out.printf("Shard %d exited with code %d after %.1fs%n", i, exitCode,
+                (System.nanoTime() - start) / 1e9);
+            failed |= exitCode != 0;
+        }
+
+        Path html = report.generateReport();
+        System.out.printf("Sharded run finished in %.1fs, report: %s%n", (System.nanoTime() - start) / 1e9, html);
+        System.exit(failed ? 1 : 0);
+    }
+
+    /** Identifies a test method in the shard plan. */
+    static String testId(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    // test id -> history key, for every enabled @Test method of every class in the suite
+    @SuppressWarnings("deprecation") // the replacement Parser is in TestNG's internal package
+    private static Map<String, String> discoverTests(String suiteFile) throws IOException, ClassNotFoundException {
+        Map<String, String> tests = new TreeMap<>();
+        for (XmlSuite suite : new Parser(suiteFile).parseToList()) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    Class<?> testClass = Class.forName(xmlClass.getName());
+                    String category = ReportListener.categoryOf(testClass);
+                    for (Method method : testClass.getMethods()) {
+                        Test annotation = method.getAnnotation(Test.class);
+                        if (annotation != null && annotation.enabled()) {
+                            tests.put(testId(testClass.getName(), method.getName()), category + "." + method.getName());
+                        }
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+
+    private static void writePlan(Path resultDir, Map<String, Integer> plan) throws IOException {
+        Properties properties = new Properties();
+        plan.forEach((test, shard) -> properties.setProperty(test, String.valueOf(shard)));
+        try (Writer writer = Files.newBufferedWriter(resultDir.resolve(PLAN_FILE), StandardCharsets.UTF_8)) {
+            properties.store(writer, "test method -> shard index");
+        }
+    }
+
+    private static List<String> shardCommand(int index, int shardCount, Path resultDir, String suiteFile) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D") && !argument.startsWith("-Dshard.")
+                    && !argument.startsWith("-Dreport.resultDir=")) {
+                command.add(argument);
+            }
+        }
+        command.add("-Dshard.count=" + shardCount);
+        command.add("-Dshard.index=" + index);
+        command.add("-Dreport.resultDir=" + resultDir);
+        command.add("org.testng.TestNG");
+        // TestNG's own reports, which would otherwise be written over each other in test-output
+        command.add("-d");
+        command.add(resultDir.resolve("shard-" + index).toString());
+        command.add(suiteFile);
+        return command;
+    }
+}
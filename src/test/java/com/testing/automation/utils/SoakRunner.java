@@ -0,0 +1,211 @@
+package com.testing.automation.utils;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+
+/**
+ * Endurance run: repeats a TestNG suite in one JVM for {@code soak.minutes}, under a continuous
+ * Flight Recorder recording, and adds leak indicators to the one report it writes at the end.
+ *
+ * Browsers, connection pools and caches live on across cycles, as they would in a long run, so
+ * anything they leak accumulates. After every cycle the runner forces a GC and samples heap
+ * after GC, child processes (browsers and drivers), open sockets, open file descriptors and
+ * threads. The report lists each indicator's first and last value after the first cycle, which
+ * also warms up, with its trend per hour, and flags those that grew by more than
+ * {@link TestConfig#SOAK_GROWTH_TOLERANCE}. The recording, with the suite's
+ * {@link FlightEvents}, is saved as {@code soak.jfr} next to the result log.
+ *
+ * <pre>
+ * mvn test -Psoak -Dsoak.minutes=120
+ * </pre>
+ */
+public class SoakRunner {
+    private static final int MIN_TREND_CYCLES = 3;
+
+    public static void main(String[] args) throws Exception {
+        if (TestConfig.SOAK_MINUTES <= 0) {
+            System.err.println("Set -Dsoak.minutes to the length of the soak run");
+            System.exit(2);
+        }
+        String suiteFile = new File(args.length > 0 ? args[0] : "testng.xml").getAbsolutePath();
+        TestReport report = TestReport.getInstance();
+        Path jfrFile = report.getResultLog().resolve("soak.jfr").toAbsolutePath();
+
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("soak");
+        recording.setToDisk(true);
+        recording.setDestination(jfrFile);
+        recording.start();
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MINUTES.toNanos(TestConfig.SOAK_MINUTES);
+        List<Sample> samples = new ArrayList<>();
+        int cycle = 0;
+        int failedTests = 0;
+        // A cycle that starts before the deadline runs to its end
+        do {
+            cycle++;
+            TestListenerAdapter results = new TestListenerAdapter();
+            TestNG testng = new TestNG();
+            testng.setTestSuites(List.of(suiteFile));
+            testng.setUseDefaultListeners(false);
+            testng.addListener(results);
+            testng.run();
+
+            Sample sample = Sample.take(cycle, (System.nanoTime() - start) / 3.6e12);
+            samples.add(sample);
+            failedTests += results.getFailedTests().size();
+
+            FlightEvents.SoakCycleEvent event = new FlightEvents.SoakCycleEvent();
+            event.cycle = cycle;
+            event.failedTests = results.getFailedTests().size();
+            event.heapAfterGc = sample.heapAfterGc;
+            event.childProcesses = sample.childProcesses;
+            event.openSockets = sample.openSockets;
+            event.commit();
+            System.out.printf("Soak cycle %d: %d passed, %d failed, %d skipped; %s%n", cycle,
+                results.getPassedTests().size(), results.getFailedTests().size(), results.getSkippedTests().size(), sample);
+        } while (System.nanoTime() < deadline);
+
+        recording.stop();
+        recording.close();
+        ArtifactPipeline.getInstance().awaitIdle(TimeUnit.SECONDS.toMillis(10));
+
+        report.setSoakSummary(String.format("%d cycles of %s in %.1f minutes, %d failed tests. Flight recording: %s",
+            cycle, Paths.get(suiteFile).getFileName(), (System.nanoTime() - start) / 6e10, failedTests, jfrFile),
+            indicators(samples));
+        Path html = report.generateReport();
+        System.out.printf("Soak run finished after %d cycles, report: %s, recording: %s%n", cycle, html, jfrFile);
+        System.exit(failedTests > 0 ? 1 : 0);
+    }
+
+    // Indicator, first, last, min, max, trend per hour, verdict; the first cycle counts as warm-up
+    private static List<List<String>> indicators(List<Sample> samples) {
+        List<Sample> measured = samples.size() > 1 ? samples.subList(1, samples.size()) : samples;
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(indicator("Heap after GC (MB)", measured, s -> s.heapAfterGc / (1024.0 * 1024)));
+        rows.add(indicator("Child processes", measured, s -> s.childProcesses));
+        rows.add(indicator("Open sockets", measured, s -> s.openSockets));
+        rows.add(indicator("Open file descriptors", measured, s -> s.openFiles));
+        rows.add(indicator("Threads", measured, s -> s.threads));
+        return rows;
+    }
+
+    private static List<String> indicator(String name, List<Sample> samples, ToDoubleFunction<Sample> value) {
+        List<String> row = new ArrayList<>();
+        row.add(name);
+        double first = value.applyAsDouble(samples.get(0));
+        double last = value.applyAsDouble(samples.get(samples.size() - 1));
+        if (first < 0) {
+            row.add("n/a");
+            return row;
+        }
+        double min = samples.stream().mapToDouble(value).min().orElse(first);
+        double max = samples.stream().mapToDouble(value).max().orElse(first);
+        double slope = slopePerHour(samples, value);
+        row.add(format(first));
+        row.add(format(last));
+        row.add(format(min));
+        row.add(format(max));
+        row.add(Double.isNaN(slope) ? "" : String.format("%+.2f", slope));
+        if (samples.size() < MIN_TREND_CYCLES) {
+            row.add("too few cycles");
+        } else {
+            // At least one whole unit (MB, process, socket) more, so small counts do not flap
+            boolean growing = slope > 0 && last - first >= 1
+                && last > first * (1 + TestConfig.SOAK_GROWTH_TOLERANCE);
+            row.add(growing ? "GROWING" : "stable");
+        }
+        return row;
+    }
+
+    // Least-squares slope against elapsed hours
+    private static double slopePerHour(List<Sample> samples, ToDoubleFunction<Sample> value) {
+        if (samples.size() < 2) {
+            return Double.NaN;
+        }
+        double meanX = samples.stream().mapToDouble(s -> s.elapsedHours).average().orElse(0);
+        double meanY = samples.stream().mapToDouble(value).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (Sample sample : samples) {
+            double dx = sample.elapsedHours - meanX;
+            covariance += dx * (value.applyAsDouble(sample) - meanY);
+            variance += dx * dx;
+        }
+        return variance > 0 ? covariance / variance : Double.NaN;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+
+    /** Leak indicators after one cycle; -1 where the platform cannot tell. */
+    static class Sample {
+        private final int cycle;
+        private final double elapsedHours;
+        private final long heapAfterGc;
+        private final long childProcesses;
+        private final long openSockets;
+        private final long openFiles;
+        private final long threads;
+
+        private Sample(int cycle, double elapsedHours) {
+            this.cycle = cycle;
+            this.elapsedHours = elapsedHours;
+            System.gc();
+            heapAfterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            childProcesses = ProcessHandle.current().descendants().filter(ProcessHandle::isAlive).count();
+            openSockets = countSockets();
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            openFiles = os instanceof UnixOperatingSystemMXBean
+                ? ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount() : -1;
+            threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        }
+
+        static Sample take(int cycle, double elapsedHours) {
+            return new Sample(cycle, elapsedHours);
+        }
+
+        // Descriptors of this process that are sockets; needs Linux's /proc
+        private static long countSockets() {
+            Path fds = Paths.get("/proc/self/fd");
+            if (!Files.isDirectory(fds)) {
+                return -1;
+            }
+            try (Stream<Path> entries = Files.list(fds)) {
+                return entries.filter(fd -> {
+                    try {
+                        return Files.readSymbolicLink(fd).toString().startsWith("socket:");
+                    } catch (IOException e) {
+                        // Closed while listing
+                        return false;
+                    }
+                }).count();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("cycle %d: heap after GC %.1fMB, %d child processes, %d sockets, %d files, %d threads",
+                cycle, heapAfterGc / (1024.0 * 1024), childProcesses, openSockets, openFiles, threads);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.testing.automation.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live view of a running suite in OpenMetrics text format, for scraping during long runs.
+ *
+ * Exposes tests started and finished by result, requests in flight, latency histograms per API
+ * endpoint, page-load phase and UI wait, and JVM heap, GC and thread counts. Updates are
+ * {@link LongAdder}s and {@link LatencyHistogram} atomics, so recording never takes a lock or
+ * blocks on a scrape; a scrape reads them while they move, which is fine for monitoring but
+ * means one scrape is not an exact cut. With -Dmetrics.enabled=true the metrics are served on
+ * {@code http://127.0.0.1:<metrics.port>/metrics} and written every
+ * {@link TestConfig#METRICS_SNAPSHOT_SECONDS} seconds to {@code metrics.prom} next to the
+ * result log, replacing the previous snapshot.
+ */
+public class SuiteMetrics {
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    // Bucket bounds, in seconds for the output and microseconds for the histograms
+    private static final double[] BOUNDS_SECONDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+    private static final long[] BOUNDS_MICROS = new long[BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_MICROS[i] = (long) (BOUNDS_SECONDS[i] * 1_000_000);
+        }
+    }
+
+    private final LongAdder testsStarted = new LongAdder();
+    private final Map<String, LongAdder> testsFinished = new ConcurrentHashMap<>();
+    private final LongAdder requestsInFlight = new LongAdder();
+    // metric family -> label string -> histogram
+    private final Map<String, Map<String, LatencyHistogram>> timings = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ScheduledExecutorService snapshots;
+
+    private static class Holder {
+        private static final SuiteMetrics METRICS = new SuiteMetrics();
+    }
+
+    public static SuiteMetrics getInstance() {
+        return Holder.METRICS;
+    }
+
+    public void testStarted() {
+        testsStarted.increment();
+    }
+
+    /** Counts a finished test; {@code result} is passed, failed or skipped. */
+    public void testFinished(String result) {
+        counter(testsFinished, result).increment();
+    }
+
+    public void requestStarted() {
+        requestsInFlight.increment();
+    }
+
+    public void requestFinished() {
+        requestsInFlight.decrement();
+    }
+
+    /**
+     * Records a timing under the family its key belongs to, following the key conventions of
+     * the recording sites: "wait ..." from EventWait, "query ..." from PageQuery, "GET &lt;url&gt;"
+     * with an optional "[phase]" from PageTimings, "resolve ..." from DriverBinaryStore and
+     * "METHOD /path" from the API filters.
+     */
+    public void recordTiming(String key, long durationNanos) {
+        String family;
+        String labels;
+        if (key.startsWith("wait ") || key.startsWith("query ")) {
+            family = "suite_ui_wait_seconds";
+            labels = label("operation", key);
+        } else if (key.startsWith("resolve ")) {
+            family = "suite_driver_resolution_seconds";
+            labels = label("operation", key);
+        } else if (key.contains("://")) {
+            int phase = key.lastIndexOf(" [");
+            String page = phase > 0 ? key.substring(key.indexOf(' ') + 1, phase) : key.substring(key.indexOf(' ') + 1);
+            family = "suite_page_load_seconds";
+            labels = label("page", page) + "," + label("phase", phase > 0 ? key.substring(phase + 2, key.length() - 1) : "wait");
+        } else {
+            family = "suite_request_duration_seconds";
+            labels = label("endpoint", key);
+        }
+        Map<String, LatencyHistogram> series = timings.get(family);
+        if (series == null) {
+            series = timings.computeIfAbsent(family, name -> new ConcurrentHashMap<>());
+        }
+        LatencyHistogram histogram = series.get(labels);
+        if (histogram == null) {
+            histogram = series.computeIfAbsent(labels, name -> new LatencyHistogram());
+        }
+        histogram.recordNanos(durationNanos);
+    }
+
+    /** Starts the endpoint and snapshot writer, when enabled; {@code snapshotFile} may be null. */
+    public synchronized void start(Path snapshotFile) {
+        if (!TestConfig.METRICS_ENABLED || server != null) {
+            return;
+        }
+        int port = TestConfig.METRICS_PORT + Math.max(0, TestConfig.SHARD_INDEX);
+        // Read once per JVM, so this server must not be created without it before the API stub's
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", this::serve);
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Error starting metrics endpoint on port " + port + ": " + e.getMessage());
+            server = null;
+        }
+        if (snapshotFile != null && TestConfig.METRICS_SNAPSHOT_SECONDS > 0) {
+            snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshots.scheduleAtFixedRate(() -> writeSnapshot(snapshotFile), TestConfig.METRICS_SNAPSHOT_SECONDS,
+                TestConfig.METRICS_SNAPSHOT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Writes a last snapshot and stops serving. */
+    public synchronized void stop(Path snapshotFile) {
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+            snapshots = null;
+        }
+        if (TestConfig.METRICS_ENABLED && snapshotFile != null) {
+            writeSnapshot(snapshotFile);
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /** Every metric in OpenMetrics text format, ending with "# EOF". */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# TYPE suite_tests_started counter\n");
+        out.append("# HELP suite_tests_started Tests that have started.\n");
+        out.append("suite_tests_started_total ").append(testsStarted.sum()).append('\n');
+        out.append("# TYPE suite_tests_finished counter\n");
+        out.append("# HELP suite_tests_finished Tests that have finished, by result.\n");
+        for (Map.Entry<String, LongAdder> result : new TreeMap<>(testsFinished).entrySet()) {
+            out.append("suite_tests_finished_total{").append(label("result", result.getKey())).append("} ")
+                .append(result.getValue().sum()).append('\n');
+        }
+        out.append("# TYPE suite_requests_in_flight gauge\n");
+        out.append("# HELP suite_requests_in_flight API requests sent and not yet answered.\n");
+        out.append("suite_requests_in_flight ").append(requestsInFlight.sum()).append('\n');
+
+        for (Map.Entry<String, Map<String, LatencyHistogram>> family : new TreeMap<>(timings).entrySet()) {
+            out.append("# TYPE ").append(family.getKey()).append(" histogram\n");
+            out.append("# UNIT ").append(family.getKey()).append(" seconds\n");
+            for (Map.Entry<String, LatencyHistogram> series : new TreeMap<>(family.getValue()).entrySet()) {
+                appendHistogram(out, family.getKey(), series.getKey(), series.getValue());
+            }
+        }
+        appendJvm(out);
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    private static void appendHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        // Read the count first: buckets recorded after it can only make the +Inf bucket larger, never smaller
+        long count = histogram.getCount();
+        long[] cumulative = histogram.countsAtOrBelow(BOUNDS_MICROS);
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            out.append(name).append("_bucket{").append(labels).append(",le=\"").append(BOUNDS_SECONDS[i])
+                .append("\"} ").append(Math.min(cumulative[i], count)).append('\n');
+        }
+        out.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(count).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(count).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ").append(histogram.getSumMillis() / 1000).append('\n');
+    }
+
+    private static void appendJvm(StringBuilder out) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        out.append("# TYPE jvm_memory_heap_bytes gauge\n");
+        out.append("# UNIT jvm_memory_heap_bytes bytes\n");
+        out.append("jvm_memory_heap_bytes{area=\"used\"} ").append(heap.getUsed()).append('\n');
+        out.append("jvm_memory_heap_bytes{area=\"committed\"} ").append(heap.getCommitted()).append('\n');
+        out.append("jvm_memory_heap_bytes{area=\"max\"} ").append(heap.getMax()).append('\n');
+        out.append("# TYPE jvm_gc_collections counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("jvm_gc_collections_total{").append(label("gc", gc.getName())).append("} ")
+                .append(Math.max(0, gc.getCollectionCount())).append('\n');
+        }
+        out.append("# TYPE jvm_gc_pause_seconds counter\n");
+        out.append("# UNIT jvm_gc_pause_seconds seconds\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("jvm_gc_pause_seconds_total{").append(label("gc", gc.getName())).append("} ")
+                .append(Math.max(0, gc.getCollectionTime()) / 1000.0).append('\n');
+        }
+        out.append("# TYPE jvm_threads gauge\n");
+        out.append("jvm_threads ").append(ManagementFactory.getThreadMXBean().getThreadCount()).append('\n');
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Written beside the file and moved over it, so a reader never sees half a snapshot
+    private void writeSnapshot(Path file) {
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, scrape().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics snapshot: " + e.getMessage());
+        }
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, name -> new LongAdder());
+    }
+
+    private static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
@@ -3,9 +3,80 @@ package com.testing.automation.utils;
 public class TestConfig {
     // API Configuration
     public static final String API_BASE_URL = "https://jsonplaceholder.typicode.com";
+    // "local" serves the API from the embedded JsonPlaceholderServer, "remote" uses API_BASE_URL
+    public static final String API_TARGET = System.getProperty("api.target", "local");
+    public static final boolean API_STUB_PERSIST_WRITES = Boolean.getBoolean("api.stub.persistWrites");
+    public static final int API_POOL_MAX_TOTAL = Integer.getInteger("api.pool.maxTotal", 64);
+    public static final int API_POOL_MAX_PER_ROUTE = Integer.getInteger("api.pool.maxPerRoute", 32);
+    public static final int API_ASYNC_MAX_CONCURRENCY = Integer.getInteger("api.async.maxConcurrency", 16);
+    // Connect and read timeouts for every API request
+    public static final int API_TIMEOUT_MS = Integer.getInteger("api.timeoutMs", 10000);
+    
+    // Load Test Configuration (load.rate = 0 runs closed-loop, otherwise requests/second)
+    public static final int LOAD_CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+    public static final double LOAD_TARGET_RATE = Double.parseDouble(System.getProperty("load.rate", "0"));
+    public static final long LOAD_WARMUP_SECONDS = Long.getLong("load.warmupSeconds", 1);
+    public static final long LOAD_DURATION_SECONDS = Long.getLong("load.durationSeconds", 3);
+    public static final long LOAD_P99_BUDGET_MS = Long.getLong("load.p99BudgetMs", 2000);
+    
+    // Circuit breakers (see CircuitBreaker): open after this many consecutive failures or slow calls
+    public static final int BREAKER_FAILURE_THRESHOLD = Integer.getInteger("breaker.failureThreshold", 3);
+    public static final long BREAKER_LATENCY_BUDGET_MS = Long.getLong("breaker.latencyBudgetMs", 10000);
+    public static final long BREAKER_INITIAL_BACKOFF_MS = Long.getLong("breaker.initialBackoffMs", 1000);
+    public static final long BREAKER_MAX_BACKOFF_MS = Long.getLong("breaker.maxBackoffMs", 30000);
+    public static final long BREAKER_PROBE_TIMEOUT_MS = Long.getLong("breaker.probeTimeoutMs", 2000);
+    
+    // Data-driven tests: posts covered by testMultiplePostsPerformance, workers for streamed cases
+    public static final int DATA_POST_COUNT = Integer.getInteger("data.postCount", 100);
+    public static final int DATA_CONCURRENCY = Integer.getInteger("data.concurrency", 8);
+    
+    // Performance history: a series regresses when its p95 grows by more than perf.maxP95Increase
+    // over the last perf.baselineRuns runs and the slowdown is significant at perf.significance
+    public static final String PERF_HISTORY_FILE = System.getProperty("perf.historyFile", "test-output/perf-history/latency.bin");
+    public static final int PERF_BASELINE_RUNS = Integer.getInteger("perf.baselineRuns", 5);
+    public static final double PERF_MAX_P95_INCREASE = Double.parseDouble(System.getProperty("perf.maxP95Increase", "0.20"));
+    public static final double PERF_SIGNIFICANCE = Double.parseDouble(System.getProperty("perf.significance", "0.01"));
+    public static final boolean PERF_FAIL_ON_REGRESSION = Boolean.getBoolean("perf.failOnRegression");
+    
+    // Failure artifacts (see ArtifactPipeline): captures waiting to be written beyond these limits are dropped
+    public static final boolean ARTIFACTS_ENABLED = Boolean.parseBoolean(System.getProperty("artifacts.enabled", "true"));
+    public static final int ARTIFACT_QUEUE_CAPACITY = Integer.getInteger("artifacts.queueCapacity", 32);
+    public static final long ARTIFACT_QUEUE_MAX_BYTES = Long.getLong("artifacts.queueMaxBytes", 64L * 1024 * 1024);
+    public static final int ARTIFACT_MAX_FILE_BYTES = Integer.getInteger("artifacts.maxFileBytes", 8 * 1024 * 1024);
+    // Request/response pairs kept per thread for the HAR of a failed API test
+    public static final int ARTIFACT_EXCHANGES = Integer.getInteger("artifacts.exchanges", 20);
+    
+    // Live metrics (see SuiteMetrics): OpenMetrics on metrics.port (plus the shard index) and a snapshot file
+    public static final boolean METRICS_ENABLED = Boolean.getBoolean("metrics.enabled");
+    public static final int METRICS_PORT = Integer.getInteger("metrics.port", 9464);
+    public static final long METRICS_SNAPSHOT_SECONDS = Long.getLong("metrics.snapshotSeconds", 15);
+    
+    // Soak runs (see SoakRunner): an indicator that grew by more than soak.growthTolerance is flagged
+    public static final long SOAK_MINUTES = Long.getLong("soak.minutes", 0);
+    public static final double SOAK_GROWTH_TOLERANCE = Double.parseDouble(System.getProperty("soak.growthTolerance", "0.10"));
+    
+    // Sharding (see ShardRunner): shard.index is set only inside a shard's JVM
+    public static final int SHARD_COUNT = Integer.getInteger("shard.count", Runtime.getRuntime().availableProcessors());
+    public static final int SHARD_INDEX = Integer.getInteger("shard.index", -1);
+    public static final String REPORT_RESULT_DIR = System.getProperty("report.resultDir");
     
     // UI Configuration
     public static final String UI_BASE_URL = "https://www.wikipedia.org";
     public static final long IMPLICIT_WAIT = 10;
     public static final long PAGE_LOAD_TIMEOUT = 20;
-} 
\ No newline at end of file
+    public static final boolean UI_HEADLESS = Boolean.parseBoolean(System.getProperty("ui.headless", "true"));
+    public static final int UI_DRIVER_POOL_SIZE = Integer.getInteger("ui.driverPoolSize", 4);
+    public static final int UI_DRIVER_MAX_USES = Integer.getInteger("ui.driverMaxUses", 25);
+    // Pinned chromedriver (see DriverBinaryStore), shared by every checkout of the user
+    public static final String UI_DRIVER_STORE_DIR = System.getProperty("ui.driverStoreDir",
+        System.getProperty("user.home") + "/.cache/api-ui-testing/drivers");
+    // Lean mode (see RequestBlocker): headless, eager page loads, heavy and third-party requests blocked
+    public static final boolean UI_LEAN = Boolean.parseBoolean(System.getProperty("ui.lean", "true"));
+    public static final String UI_BLOCKED_RESOURCE_TYPES = System.getProperty("ui.blockedResourceTypes", "Image,Media,Font");
+    public static final String UI_BLOCKED_URL_PATTERNS = System.getProperty("ui.blockedUrlPatterns",
+        "*intake-analytics.wikimedia.org*,*/beacon/*,*google-analytics.com*,*googletagmanager.com*,*doubleclick.net*");
+    // Wikipedia snapshots (see SnapshotServer): "record" captures what the UI tests load, "replay" serves only that
+    public static final String UI_SNAPSHOT_MODE = System.getProperty("ui.snapshot", "off");
+    public static final String UI_SNAPSHOT_DIR = System.getProperty("ui.snapshotDir", "src/test/resources/snapshots/wikipedia");
+    public static final String UI_SNAPSHOT_HOSTS = System.getProperty("ui.snapshotHosts", "wikipedia.org,wikimedia.org");
+}
@@ -1,35 +1,330 @@
 package com.testing.automation.utils;
 
-import java.io.File;
-import java.io.FileWriter;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
-public class TestReport {
+/**
+ * Suite-wide collector of test results and timings, rendered as one HTML report.
+ *
+ * Results are not kept in memory and never pass through a shared lock: every thread appends
+ * JSON lines to its own shard of the result log, flushed every {@value #FLUSH_EVERY} results,
+ * every {@value #FLUSH_INTERVAL_MILLIS}ms by a background thread and on JVM shutdown, so a
+ * thread that stops logging does not hold its last results back; the summary counters are
+ * {@link LongAdder}s. {@link #generateReport()} merges the shards in completion order while
+ * streaming them into the HTML, so memory stays flat for any number of results and the log
+ * survives an aborted run.
+ *
+ * Several JVMs can share one result directory: each shard of a sharded run writes its log
+ * under its own prefix and saves its counters and timings with {@link #writePart()}, and the
+ * report generated over that directory includes all of them.
+ *
+ * Each generated report also compares every timing series with earlier runs kept in the
+ * {@link PerformanceHistory} store, flags regressions, and then adds this run to the store.
+ */
+public class TestReport implements Closeable {
     private static final String REPORT_DIR = "test-output/reports/";
-    private List<TestResult> results;
+    private static final int FLUSH_EVERY = 256;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final String PART_SUFFIX = "summary.json";
+    private static final Gson GSON = new Gson();
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "test-report-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path resultDir;
+    private final String logPrefix;
+    private final ThreadLocal<Shard> shard = ThreadLocal.withInitial(this::openShard);
+    private final Queue<Shard> shards = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger shardCount = new AtomicInteger();
+    private final LongAdder totalTests = new LongAdder();
+    private final LongAdder passedTests = new LongAdder();
+    private final LongAdder skippedTests = new LongAdder();
+    private final LongAdder artifactsDropped = new LongAdder();
+    // LocatorCache hits, misses and stale elements located again
+    private final LongAdder[] locatorCache = {new LongAdder(), new LongAdder(), new LongAdder()};
+    // test name -> endpoint/page -> latency histogram
+    private final Map<String, Map<String, LatencyHistogram>> timings = new ConcurrentHashMap<>();
+    // test name -> requests kept from loading in lean UI mode
+    private final Map<String, LongAdder> savings = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> periodicFlush;
+    private final Thread shutdownFlush;
+    private volatile PerformanceHistory history;
+    private String soakDescription;
+    private List<List<String>> soakIndicators;
     private long startTime;
     private long endTime;
 
+    private static class Holder {
+        private static final TestReport SUITE_REPORT = TestConfig.REPORT_RESULT_DIR != null
+            ? new TestReport(Paths.get(TestConfig.REPORT_RESULT_DIR), "part" + TestConfig.SHARD_INDEX + "-")
+            : new TestReport();
+    }
+
+    /** The report shared by every test class in this JVM. */
+    public static TestReport getInstance() {
+        return Holder.SUITE_REPORT;
+    }
+
     public TestReport() {
-        results = new ArrayList<>();
+        this(Paths.get(REPORT_DIR, "TestResults_" + new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date())), "");
+    }
+
+    /** A report logging into {@code resultDir}, with {@code logPrefix} on every file it writes there. */
+    public TestReport(Path resultDir, String logPrefix) {
         startTime = System.currentTimeMillis();
-        new File(REPORT_DIR).mkdirs();
+        this.resultDir = resultDir;
+        this.logPrefix = logPrefix;
+        try {
+            Files.createDirectories(resultDir);
+        } catch (IOException e) {
+            System.err.println("Error creating result log directory: " + e.getMessage());
+        }
+        periodicFlush = FLUSHER.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+            TimeUnit.MILLISECONDS);
+        shutdownFlush = new Thread(this::flush, "test-report-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownFlush);
+    }
+
+    /**
+     * Flushes and closes the result log and stops flushing it in the background, for a report
+     * that is done with before the JVM exits; the suite's own report is left open.
+     */
+    @Override
+    public void close() {
+        periodicFlush.cancel(false);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownFlush);
+        } catch (IllegalStateException e) {
+            // Already shutting down, the hook flushes
+        }
+        for (Shard each : shards) {
+            each.close();
+        }
+        shards.clear();
+    }
+
+    /** Directory holding the per-thread result log shards. */
+    public Path getResultLog() {
+        return resultDir;
     }
 
     public void addResult(String testName, String category, boolean passed, String description, String error) {
-        results.add(new TestResult(testName, category, passed, description, error));
+        addResult(testName, category, passed, description, error, -1);
+    }
+
+    public void addResult(String testName, String category, boolean passed, String description, String error,
+                          long durationMillis) {
+        addResult(testName, category, passed, description, error, durationMillis, null);
+    }
+
+    /** Adds a result whose failure artifacts are in {@code artifacts}, a zip written by {@link ArtifactPipeline}. */
+    public void addResult(String testName, String category, boolean passed, String description, String error,
+                          long durationMillis, Path artifacts) {
+        totalTests.increment();
+        if (passed) {
+            passedTests.increment();
+        }
+        shard.get().append(new TestResult(testName, category, passed, false, description, error, durationMillis,
+            System.currentTimeMillis(), artifacts != null ? artifacts.toAbsolutePath().toString() : null));
+    }
+
+    /** Adds a test that was skipped, e.g. by an open circuit breaker, with the reason as its error. */
+    public void addSkipped(String testName, String category, String description, String reason, long durationMillis) {
+        totalTests.increment();
+        skippedTests.increment();
+        shard.get().append(new TestResult(testName, category, false, true, description, reason, durationMillis,
+            System.currentTimeMillis(), null));
+    }
+
+    /** Adds a soak run's summary and leak indicators, see {@link SoakRunner}. */
+    public void setSoakSummary(String description, List<List<String>> indicators) {
+        soakDescription = description;
+        soakIndicators = indicators;
+    }
+
+    /** Counts a failure whose artifacts were dropped because the artifact queue was full. */
+    public void recordArtifactsDropped() {
+        artifactsDropped.increment();
+    }
+
+    /** Counts an element lookup served from a LocatorCache, or one that had to locate the element. */
+    public void recordLocatorLookup(boolean hit) {
+        locatorCache[hit ? 0 : 1].increment();
+    }
+
+    /** Counts a cached element that went stale and was located again. */
+    public void recordLocatorStale() {
+        locatorCache[2].increment();
+    }
+
+    /**
+     * Records one timed operation (an HTTP request, a page load) against a test and endpoint.
+     * Safe to call concurrently; after the first sample for a key this does not allocate.
+     */
+    public void recordTiming(String testName, String endpoint, long durationNanos) {
+        timings.computeIfAbsent(testName, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(endpoint, name -> new LatencyHistogram())
+            .recordNanos(durationNanos);
+        if (TestConfig.METRICS_ENABLED) {
+            SuiteMetrics.getInstance().recordTiming(endpoint, durationNanos);
+        }
     }
 
-    public void generateReport() {
+    /** Records requests a test's browser did not load. */
+    public void recordSavings(String testName, long requests) {
+        savings.computeIfAbsent(testName, name -> new LongAdder()).add(requests);
+    }
+
+    /**
+     * Saves this JVM's counters and timings next to its result log, for a shard whose results
+     * are rendered by the report generated over the shared result directory.
+     */
+    public void writePart() {
+        flush();
+        Part part = new Part();
+        part.total = totalTests.sum();
+        part.passed = passedTests.sum();
+        part.skipped = skippedTests.sum();
+        part.artifactsDropped = artifactsDropped.sum();
+        part.locatorCache = sums(locatorCache);
+        for (CircuitBreaker breaker : CircuitBreaker.all()) {
+            part.breakers.add(breaker.summary());
+        }
+        timings.forEach((test, endpoints) -> endpoints.forEach((endpoint, histogram) ->
+            part.timings.computeIfAbsent(test, name -> new TreeMap<>()).put(endpoint, histogram.snapshot())));
+        savings.forEach((test, saved) -> part.savings.put(test, saved.sum()));
+        try (BufferedWriter writer = Files.newBufferedWriter(resultDir.resolve(logPrefix + PART_SUFFIX),
+                StandardCharsets.UTF_8)) {
+            GSON.toJson(part, writer);
+        } catch (IOException e) {
+            System.err.println("Error writing report part: " + e.getMessage());
+        }
+    }
+
+    /** Result log directories of earlier runs, oldest first. */
+    public static List<Path> previousRuns() {
+        try (Stream<Path> dirs = Files.list(Paths.get(REPORT_DIR))) {
+            return dirs.filter(dir -> Files.isDirectory(dir) && dir.getFileName().toString().startsWith("TestResults_"))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /** Total recorded duration per "CATEGORY.testName" in one result log directory. */
+    public static Map<String, Long> readDurations(Path resultDir) throws IOException {
+        Map<String, Long> durations = new HashMap<>();
+        for (Path log : listFiles(resultDir, ".jsonl")) {
+            try (ShardReader reader = new ShardReader(log)) {
+                while (reader.advance()) {
+                    TestResult result = reader.current;
+                    if (result.getDurationMillis() >= 0) {
+                        durations.merge(result.getCategory() + "." + result.getTestName(), result.getDurationMillis(),
+                            Long::sum);
+                    }
+                }
+            }
+        }
+        return durations;
+    }
+
+    /** Timing series of a test that have regressed against the performance history so far. */
+    public List<String> regressions(String testName) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, LatencyHistogram> endpoints = timings.get(testName);
+        if (endpoints != null) {
+            for (Map.Entry<String, LatencyHistogram> endpoint : new TreeMap<>(endpoints).entrySet()) {
+                PerformanceHistory.Comparison comparison = history().compare(testName, endpoint.getKey(),
+                    endpoint.getValue());
+                if (comparison.isRegressed()) {
+                    regressions.add(endpoint.getKey() + " " + comparison);
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /** Name of the TestNG test method running on this thread, for attributing timings. */
+    public static String currentTestName() {
+        ITestResult current = Reporter.getCurrentTestResult();
+        return current != null ? current.getMethod().getMethodName() : "(setup)";
+    }
+
+    /** Writes the HTML report and returns its path, or null if it could not be written. */
+    public Path generateReport() {
         endTime = System.currentTimeMillis();
         String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String reportPath = REPORT_DIR + "TestReport_" + timestamp + ".html";
+        Path reportPath = Paths.get(REPORT_DIR, "TestReport_" + timestamp + ".html");
+        flush();
+
+        long total = totalTests.sum();
+        long passed = passedTests.sum();
+        long skipped = skippedTests.sum();
+        long dropped = artifactsDropped.sum();
+        long[] locators = sums(locatorCache);
+        List<List<String>> breakers = new ArrayList<>();
+        for (CircuitBreaker breaker : CircuitBreaker.all()) {
+            breakers.add(breaker.summary());
+        }
+        Map<String, Map<String, LatencyHistogram>> allTimings = new TreeMap<>();
+        timings.forEach((test, endpoints) -> endpoints.forEach((endpoint, histogram) ->
+            mergeTiming(allTimings, test, endpoint, histogram)));
+        Map<String, Long> allSavings = new TreeMap<>();
+        savings.forEach((test, saved) -> allSavings.merge(test, saved.sum(), Long::sum));
+        for (Part part : readParts()) {
+            total += part.total;
+            passed += part.passed;
+            skipped += part.skipped;
+            dropped += part.artifactsDropped;
+            for (int i = 0; i < locators.length; i++) {
+                locators[i] += part.locatorCache[i];
+            }
+            breakers.addAll(part.breakers);
+            part.timings.forEach((test, endpoints) -> endpoints.forEach((endpoint, snapshot) ->
+                mergeTiming(allTimings, test, endpoint, LatencyHistogram.fromSnapshot(snapshot))));
+            part.savings.forEach((test, saved) -> allSavings.merge(test, saved, Long::sum));
+        }
+        Map<String, PerformanceHistory.Comparison> comparisons = new HashMap<>();
+        allTimings.forEach((test, endpoints) -> endpoints.forEach((endpoint, histogram) ->
+            comparisons.put(test + " " + endpoint, history().compare(test, endpoint, histogram))));
+        long regressed = comparisons.values().stream().filter(PerformanceHistory.Comparison::isRegressed).count();
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(reportPath))) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8))) {
             writer.println("<html><head><title>Test Execution Report</title>");
             writer.println("<style>");
             writer.println("body { font-family: Arial, sans-serif; margin: 20px; }");
@@ -38,59 +333,354 @@ public class TestReport {
             writer.println("th { background-color: #f2f2f2; }");
             writer.println(".pass { color: green; }");
             writer.println(".fail { color: red; }");
+            writer.println(".skip { color: orange; }");
             writer.println("</style></head><body>");
 
             // Summary
             writer.println("<h1>Test Execution Report</h1>");
             writer.println("<h2>Summary</h2>");
             writer.println("<p>Execution Time: " + (endTime - startTime) / 1000.0 + " seconds</p>");
-            
-            long passedTests = results.stream().filter(TestResult::isPassed).count();
-            writer.println("<p>Total Tests: " + results.size() + "</p>");
-            writer.println("<p>Passed: " + passedTests + "</p>");
-            writer.println("<p>Failed: " + (results.size() - passedTests) + "</p>");
+
+            writer.println("<p>Total Tests: " + total + "</p>");
+            writer.println("<p>Passed: " + passed + "</p>");
+            writer.println("<p>Failed: " + (total - passed - skipped) + "</p>");
+            writer.println("<p>Skipped: " + skipped + "</p>");
+            writer.println("<p" + (regressed > 0 ? " class='fail'" : "") + ">Performance regressions: " + regressed + "</p>");
+            if (dropped > 0) {
+                writer.println("<p class='fail'>Failure artifacts dropped: " + dropped + "</p>");
+            }
+            if (locators[0] + locators[1] > 0) {
+                writer.println("<p>Locator cache: " + locators[0] + " hits, " + locators[1] + " misses, "
+                    + locators[2] + " stale</p>");
+            }
 
             // Detailed Results
             writer.println("<h2>Detailed Results</h2>");
             writer.println("<table>");
-            writer.println("<tr><th>Category</th><th>Test Name</th><th>Status</th><th>Description</th><th>Error</th></tr>");
+            writer.println("<tr><th>Category</th><th>Test Name</th><th>Status</th><th>Duration (ms)</th><th>Description</th><th>Error</th><th>Artifacts</th></tr>");
+            Path reportDir = reportPath.toAbsolutePath().getParent();
 
-            for (TestResult result : results) {
+            forEachResult(result -> {
                 writer.println("<tr>");
                 writer.println("<td>" + result.getCategory() + "</td>");
                 writer.println("<td>" + result.getTestName() + "</td>");
-                writer.println("<td class='" + (result.isPassed() ? "pass'>PASS" : "fail'>FAIL") + "</td>");
+                writer.println("<td class='" + (result.isPassed() ? "pass'>PASS"
+                    : result.isSkipped() ? "skip'>SKIP" : "fail'>FAIL") + "</td>");
+                writer.println("<td>" + (result.getDurationMillis() >= 0 ? result.getDurationMillis() : "") + "</td>");
                 writer.println("<td>" + result.getDescription() + "</td>");
                 writer.println("<td>" + (result.getError() != null ? result.getError() : "") + "</td>");
+                writer.println("<td>" + (result.getArtifacts() != null ? "<a href='"
+                    + reportDir.relativize(Paths.get(result.getArtifacts())).toString().replace('\\', '/')
+                    + "'>zip</a>" : "") + "</td>");
                 writer.println("</tr>");
+            });
+
+            writer.println("</table>");
+
+            // Timings
+            writer.println("<h2>Timings (ms)</h2>");
+            writer.println("<table>");
+            writer.println("<tr><th>Test Name</th><th>Endpoint</th><th>Samples</th><th>Min</th><th>Mean</th><th>p95</th><th>p99</th><th>Max</th><th>vs. History</th></tr>");
+            for (Map.Entry<String, Map<String, LatencyHistogram>> test : allTimings.entrySet()) {
+                for (Map.Entry<String, LatencyHistogram> endpoint : test.getValue().entrySet()) {
+                    LatencyHistogram histogram = endpoint.getValue();
+                    writer.println("<tr>");
+                    writer.println("<td>" + test.getKey() + "</td>");
+                    writer.println("<td>" + endpoint.getKey() + "</td>");
+                    writer.println("<td>" + histogram.getCount() + "</td>");
+                    writer.println(String.format("<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>",
+                        histogram.getMinMillis(), histogram.getMeanMillis(), histogram.getPercentileMillis(95),
+                        histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+                    PerformanceHistory.Comparison comparison = comparisons.get(test.getKey() + " " + endpoint.getKey());
+                    writer.println("<td" + (comparison.isRegressed() ? " class='fail'" : "") + ">" + comparison + "</td>");
+                    writer.println("</tr>");
+                }
             }
+            writer.println("</table>");
 
+            // Lean UI mode
+            if (!allSavings.isEmpty()) {
+                writer.println("<h2>Blocked Requests</h2>");
+                writer.println("<table>");
+                writer.println("<tr><th>Test Name</th><th>Requests Saved</th></tr>");
+                for (Map.Entry<String, Long> test : allSavings.entrySet()) {
+                    writer.println("<tr>");
+                    writer.println("<td>" + test.getKey() + "</td>");
+                    writer.println("<td>" + test.getValue() + "</td>");
+                    writer.println("</tr>");
+                }
+                writer.println("</table>");
+            }
+
+            // Soak run
+            if (soakIndicators != null) {
+                writer.println("<h2>Soak Run</h2>");
+                writer.println("<p>" + soakDescription + "</p>");
+                writer.println("<table>");
+                writer.println("<tr><th>Leak Indicator</th><th>First</th><th>Last</th><th>Min</th><th>Max</th><th>Trend per Hour</th><th>Verdict</th></tr>");
+                for (List<String> indicator : soakIndicators) {
+                    writer.println("<tr>");
+                    for (String cell : indicator) {
+                        writer.println("<td" + ("GROWING".equals(cell) ? " class='fail'" : "") + ">" + cell + "</td>");
+                    }
+                    writer.println("</tr>");
+                }
+                writer.println("</table>");
+            }
+
+            // Circuit breakers
+            writer.println("<h2>Circuit Breakers</h2>");
+            writer.println("<table>");
+            writer.println("<tr><th>Origin</th><th>State</th><th>Trips</th><th>Probes</th><th>Short-circuited</th><th>Last Failure</th></tr>");
+            for (List<String> breaker : breakers) {
+                writer.println("<tr>");
+                for (int i = 0; i < breaker.size(); i++) {
+                    boolean open = i == 1 && !"CLOSED".equals(breaker.get(i));
+                    writer.println("<td" + (open ? " class='fail'" : "") + ">" + breaker.get(i) + "</td>");
+                }
+                writer.println("</tr>");
+            }
             writer.println("</table>");
             writer.println("</body></html>");
         } catch (Exception e) {
             System.err.println("Error generating report: " + e.getMessage());
+            return null;
+        }
+        history().append(startTime, PerformanceHistory.currentCommit(), allTimings);
+        return reportPath;
+    }
+
+    private PerformanceHistory history() {
+        if (history == null) {
+            synchronized (this) {
+                if (history == null) {
+                    history = PerformanceHistory.open(Paths.get(TestConfig.PERF_HISTORY_FILE));
+                }
+            }
+        }
+        return history;
+    }
+
+    private static long[] sums(LongAdder[] counters) {
+        long[] sums = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            sums[i] = counters[i].sum();
+        }
+        return sums;
+    }
+
+    private static void mergeTiming(Map<String, Map<String, LatencyHistogram>> into, String test, String endpoint,
+                                    LatencyHistogram histogram) {
+        into.computeIfAbsent(test, name -> new TreeMap<>())
+            .computeIfAbsent(endpoint, name -> new LatencyHistogram())
+            .add(histogram);
+    }
+
+    private List<Part> readParts() {
+        List<Part> parts = new ArrayList<>();
+        for (Path file : listFiles(resultDir, PART_SUFFIX)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Part part = GSON.fromJson(reader, Part.class);
+                if (part != null) {
+                    parts.add(part);
+                }
+            } catch (IOException | JsonParseException e) {
+                System.err.println("Error reading report part " + file + ": " + e.getMessage());
+            }
+        }
+        return parts;
+    }
+
+    private static List<Path> listFiles(Path dir, String suffix) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private Shard openShard() {
+        // Threads come and go over a long run; a dead thread's shard is complete, so close its file
+        shards.removeIf(Shard::closeIfOrphaned);
+        Shard opened = new Shard(resultDir.resolve(logPrefix + "shard-" + shardCount.incrementAndGet() + ".jsonl"));
+        shards.add(opened);
+        return opened;
+    }
+
+    private void flush() {
+        for (Shard each : shards) {
+            each.flush();
         }
     }
 
+    // Each shard is already in completion order, so a k-way merge streams the whole log in order
+    private void forEachResult(Consumer<TestResult> action) throws IOException {
+        List<ShardReader> readers = new ArrayList<>();
+        PriorityQueue<ShardReader> pending = new PriorityQueue<>(
+            Comparator.comparingLong((ShardReader reader) -> reader.current.getFinishedAt()));
+        try {
+            // Every log in the directory, including those written by other shards' JVMs
+            for (Path log : listFiles(resultDir, ".jsonl")) {
+                ShardReader reader = new ShardReader(log);
+                readers.add(reader);
+                if (reader.advance()) {
+                    pending.add(reader);
+                }
+            }
+            while (!pending.isEmpty()) {
+                ShardReader next = pending.poll();
+                action.accept(next.current);
+                if (next.advance()) {
+                    pending.add(next);
+                }
+            }
+        } finally {
+            for (ShardReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * One thread's slice of the result log; only its owning thread appends to it, while the
+     * flusher may flush it at any time, which BufferedWriter's own lock makes safe.
+     */
+    private static class Shard {
+        private final Thread owner = Thread.currentThread();
+        private BufferedWriter writer;
+        private int unflushed;
+
+        Shard(Path file) {
+            try {
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Error opening result log: " + e.getMessage());
+            }
+        }
+
+        void append(TestResult result) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(GSON.toJson(result));
+                writer.newLine();
+                if (++unflushed >= FLUSH_EVERY) {
+                    writer.flush();
+                    unflushed = 0;
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing test result: " + e.getMessage());
+            }
+        }
+
+        // Synchronized with closing, so the flusher never flushes a closed writer
+        synchronized void flush() {
+            try {
+                if (writer != null) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                System.err.println("Error flushing result log: " + e.getMessage());
+            }
+        }
+
+        synchronized boolean closeIfOrphaned() {
+            if (owner.isAlive()) {
+                return false;
+            }
+            close();
+            return true;
+        }
+
+        synchronized void close() {
+            try {
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+            } catch (IOException e) {
+                System.err.println("Error closing result log: " + e.getMessage());
+            }
+        }
+    }
+
+    // A line cut short by a crash is skipped
+    private static class ShardReader implements Closeable {
+        private final BufferedReader reader;
+        private TestResult current;
+
+        ShardReader(Path file) throws IOException {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        boolean advance() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    current = GSON.fromJson(line, TestResult.class);
+                } catch (JsonParseException e) {
+                    continue;
+                }
+                if (current != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /** Counters and timings of one shard's JVM, see {@link #writePart()}. */
+    private static class Part {
+        private long total;
+        private long passed;
+        private long skipped;
+        private long artifactsDropped;
+        private long[] locatorCache = new long[3];
+        private List<List<String>> breakers = new ArrayList<>();
+        private Map<String, Map<String, LatencyHistogram.Snapshot>> timings = new TreeMap<>();
+        private Map<String, Long> savings = new TreeMap<>();
+    }
+
     private static class TestResult {
         private String testName;
         private String category;
         private boolean passed;
+        private boolean skipped;
         private String description;
         private String error;
+        private long durationMillis;
+        private long finishedAt;
+        private String artifacts;
 
-        public TestResult(String testName, String category, boolean passed, String description, String error) {
+        public TestResult(String testName, String category, boolean passed, boolean skipped, String description,
+                          String error, long durationMillis, long finishedAt, String artifacts) {
             this.testName = testName;
             this.category = category;
             this.passed = passed;
+            this.skipped = skipped;
             this.description = description;
             this.error = error;
+            this.durationMillis = durationMillis;
+            this.finishedAt = finishedAt;
+            this.artifacts = artifacts;
         }
 
         public String getTestName() { return testName; }
         public String getCategory() { return category; }
         public boolean isPassed() { return passed; }
+        public boolean isSkipped() { return skipped; }
         public String getDescription() { return description; }
         public String getError() { return error; }
+        public long getDurationMillis() { return durationMillis; }
+        public long getFinishedAt() { return finishedAt; }
+        public String getArtifacts() { return artifacts; }
     }
-} 
\ No newline at end of file
+}